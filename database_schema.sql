@@ -1 +1,120 @@
-SELECT * FROM hotel_management.users;
\ No newline at end of file
+-- Hotel Management System schema.
+-- Running this file by hand is optional: on startup the application applies the same DDL
+-- from src/com/hotel/db/migrations and records each version in the schema_version table.
+
+CREATE TABLE IF NOT EXISTS users (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    full_name VARCHAR(100),
+    role VARCHAR(20) DEFAULT 'STAFF',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS guests (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    email VARCHAR(100),
+    phone VARCHAR(20),
+    id_number VARCHAR(50) NOT NULL UNIQUE,
+    address VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS rooms (
+    room_number VARCHAR(10) PRIMARY KEY,
+    type ENUM('SINGLE', 'DOUBLE', 'SUITE', 'DELUXE') NOT NULL,
+    status ENUM('AVAILABLE', 'OCCUPIED', 'MAINTENANCE') NOT NULL DEFAULT 'AVAILABLE',
+    price_per_night DECIMAL(10, 2) NOT NULL,
+    description VARCHAR(255),
+    max_occupancy INT NOT NULL DEFAULT 1
+);
+
+CREATE TABLE IF NOT EXISTS reservations (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    guest_id INT NOT NULL,
+    room_number VARCHAR(10) NOT NULL,
+    check_in_date DATE NOT NULL,
+    check_out_date DATE NOT NULL,
+    status ENUM('PENDING', 'CONFIRMED', 'CHECKED_IN', 'CHECKED_OUT', 'CANCELLED') NOT NULL DEFAULT 'PENDING',
+    total_price DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    notes TEXT,
+    FOREIGN KEY (guest_id) REFERENCES guests(id),
+    FOREIGN KEY (room_number) REFERENCES rooms(room_number) ON UPDATE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS payments (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    reservation_id INT NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    payment_method ENUM('CASH', 'CREDIT_CARD', 'DEBIT_CARD', 'ONLINE') NOT NULL,
+    payment_date DATETIME NOT NULL,
+    status ENUM('PENDING', 'COMPLETED', 'REFUNDED') NOT NULL DEFAULT 'PENDING',
+    transaction_id VARCHAR(100),
+    notes TEXT,
+    FOREIGN KEY (reservation_id) REFERENCES reservations(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS services (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(255),
+    price DECIMAL(10, 2) NOT NULL,
+    category ENUM('ROOM_SERVICE', 'LAUNDRY', 'SPA', 'TRANSPORT', 'MINIBAR', 'HOUSEKEEPING', 'OTHER') NOT NULL,
+    is_active BOOLEAN NOT NULL DEFAULT TRUE
+);
+
+CREATE TABLE IF NOT EXISTS reservation_services (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    reservation_id INT NOT NULL,
+    service_id INT NOT NULL,
+    quantity INT NOT NULL DEFAULT 1,
+    date_requested DATETIME NOT NULL,
+    status ENUM('PENDING', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED') NOT NULL DEFAULT 'PENDING',
+    total_price DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    notes TEXT,
+    FOREIGN KEY (reservation_id) REFERENCES reservations(id) ON DELETE CASCADE,
+    FOREIGN KEY (service_id) REFERENCES services(id)
+);
+
+-- One row per room per night held by an active reservation; the primary key rejects double bookings
+CREATE TABLE IF NOT EXISTS room_nights (
+    room_number VARCHAR(10) NOT NULL,
+    night DATE NOT NULL,
+    reservation_id INT NOT NULL,
+    PRIMARY KEY (room_number, night),
+    KEY idx_room_nights_reservation (reservation_id),
+    FOREIGN KEY (reservation_id) REFERENCES reservations(id) ON DELETE CASCADE,
+    FOREIGN KEY (room_number) REFERENCES rooms(room_number) ON UPDATE CASCADE
+);
+
+-- Room availability: the NOT EXISTS probe in RoomDAO.findAvailableRooms, the availability
+-- index rebuild and ReservationDAO.getReservationsByRoom all seek on room_number and range on
+-- check_in_date; carrying check_out_date and status makes the overlap test index-only.
+CREATE INDEX idx_reservations_room_dates ON reservations (room_number, check_in_date, check_out_date, status);
+
+-- ReservationDAO.getReservationsByStatus (WHERE status=? ORDER BY check_in_date DESC)
+-- and the active-reservation counts on the dashboard.
+CREATE INDEX idx_reservations_status_checkin ON reservations (status, check_in_date);
+
+-- PaymentDAO.getPaymentsByReservation and the paid/unpaid checks (reservation_id=? AND status).
+CREATE INDEX idx_payments_reservation_status ON payments (reservation_id, status);
+
+-- Revenue totals (WHERE status='COMPLETED', SUM(amount)) read from the index alone.
+CREATE INDEX idx_payments_status_amount ON payments (status, amount);
+
+-- ReservationServiceDAO lookups by reservation and getTotalServiceCharges (status != 'CANCELLED').
+CREATE INDEX idx_reservation_services_reservation_status ON reservation_services (reservation_id, status);
+
+-- ServiceDAO.getServicesByCategory (WHERE category=? ORDER BY name)
+-- and getActiveServices (WHERE is_active=TRUE ORDER BY category, name).
+CREATE INDEX idx_services_category_name ON services (category, name);
+CREATE INDEX idx_services_active_category_name ON services (is_active, category, name);
+
+-- GuestDAO.searchGuests in "fulltext" mode (DatabaseConfig.getGuestSearchMode):
+-- MATCH (...) AGAINST (? IN BOOLEAN MODE) over the columns the guest search box covers.
+CREATE FULLTEXT INDEX ft_guests_search ON guests (first_name, last_name, email, phone, id_number);
+
+-- GuestDAO.findGuestSummaries: prefix lookups on first/last name for the reservation guest picker.
+CREATE INDEX idx_guests_last_first ON guests (last_name, first_name);
+CREATE INDEX idx_guests_first_last ON guests (first_name, last_name);
@@ -26,6 +26,8 @@ if %ERRORLEVEL% EQU 0 (
     copy src\com\hotel\view\styles.css bin\com\hotel\view\ >nul 2>&1
     copy src\com\hotel\view\images\*.* bin\com\hotel\view\images\ >nul 2>&1
     copy src\com\hotel\view\*.png bin\com\hotel\view\ >nul 2>&1
+    if not exist bin\com\hotel\db\migrations mkdir bin\com\hotel\db\migrations
+    copy src\com\hotel\db\migrations\*.sql bin\com\hotel\db\migrations\ >nul 2>&1
     
     echo.
     echo Starting application...
@@ -35,6 +35,12 @@ if ($LASTEXITCODE -eq 0) {
     }
     # Copy all files from view directory (FXML, CSS, PNG, etc.)
     Copy-Item -Path "$SRC_DIR\com\hotel\view\*" -Destination "$VIEW_DEST\" -Force -ErrorAction SilentlyContinue
+    # Copy schema migration scripts
+    $MIGRATION_DEST = "$OUT_DIR\com\hotel\db\migrations"
+    if (!(Test-Path $MIGRATION_DEST)) {
+        New-Item -ItemType Directory -Path $MIGRATION_DEST | Out-Null
+    }
+    Copy-Item -Path "$SRC_DIR\com\hotel\db\migrations\*.sql" -Destination "$MIGRATION_DEST\" -Force -ErrorAction SilentlyContinue
     
     Write-Host ""
     Write-Host "Starting application..." -ForegroundColor Cyan
@@ -1,11 +1,36 @@
 package com.hotel;
 
+import com.hotel.dao.DaoRegistry;
+import com.hotel.dao.GuestDAO;
+import com.hotel.service.BackgroundExecutor;
+import com.hotel.service.DatabaseManager;
+import com.hotel.service.GuestSearchIndex;
+import com.hotel.service.ReservationWorkflowService;
+import com.hotel.service.MigrationRunner;
+import com.hotel.service.RoomAvailabilityIndex;
 import com.hotel.util.NavigationUtil;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
 public class HotelManagementApp extends Application {
 
+    @Override
+    public void init() {
+        // Runs on the launcher thread; the schema must be current before any DAO is used
+        new MigrationRunner().migrate();
+
+        // Build the shared DAOs here rather than in the first controller on the FX thread
+        DaoRegistry.getInstance();
+
+        // Warm the index in the background so the login window is not held up by the database;
+        // availability checks made before it finishes load it on demand
+        RoomAvailabilityIndex index = RoomAvailabilityIndex.getInstance();
+        BackgroundExecutor.getInstance().submitDetached(index::rebuild, null, null);
+        if (!GuestDAO.usesFullTextSearch()) {
+            BackgroundExecutor.getInstance().submitDetached(GuestSearchIndex.getInstance()::rebuild, null, null);
+        }
+    }
+
     @Override
     public void start(Stage primaryStage) {
         primaryStage.setTitle("Hotel Management System");
@@ -19,6 +44,13 @@ public class HotelManagementApp extends Application {
         NavigationUtil.loadLogin();
     }
 
+    @Override
+    public void stop() {
+        System.out.println(ReservationWorkflowService.getInstance().getBookingStats());
+        BackgroundExecutor.getInstance().shutdown();
+        DatabaseManager.getInstance().closeConnection();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -1,24 +1,91 @@
 package com.hotel.config;
 
 public class DatabaseConfig {
-    private static final String DB_URL = "jdbc:mysql://127.0.0.1:3306/hotel_management";
+    // rewriteBatchedStatements: JDBC batches go out as multi-row statements instead of one round trip per row
+    private static final String DB_URL = "jdbc:mysql://127.0.0.1:3306/hotel_management?rewriteBatchedStatements=true";
     private static final String DB_USER = "root";
     private static final String DB_PASSWORD = "1234";
     private static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
 
+    // Connection pool settings
+    private static final int POOL_MAX_SIZE = 10;
+    private static final int POOL_MIN_IDLE = 2;
+    private static final long POOL_MAX_WAIT_MS = 10_000;
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final long POOL_LEAK_THRESHOLD_MS = 30_000;
+    private static final int POOL_VALIDATION_TIMEOUT_SEC = 2;
+
+    // DAO cache settings
+    private static final int GUEST_CACHE_SIZE = 2_000;
+
+    // Guest search: "index" uses the in-process trigram index (substring matches, memory grows
+    // with the guests table); "fulltext" uses the MySQL FULLTEXT index (word-prefix matches)
+    private static final String GUEST_SEARCH_MODE = "index";
+    private static final int GUEST_SEARCH_LIMIT = 200;
+    // Suggestions shown by the reservation form's guest picker
+    private static final int GUEST_PICKER_LIMIT = 20;
+    // Rows per executeBatch in the DAOs' addAll/updateAll
+    private static final int BATCH_SIZE = 500;
+
+    // -Dhotel.db.url, -Dhotel.db.user and -Dhotel.db.password point the application (or the
+    // tests) at another database
     public static String getDbUrl() {
-        return DB_URL;
+        return System.getProperty("hotel.db.url", DB_URL);
     }
 
     public static String getDbUser() {
-        return DB_USER;
+        return System.getProperty("hotel.db.user", DB_USER);
     }
 
     public static String getDbPassword() {
-        return DB_PASSWORD;
+        return System.getProperty("hotel.db.password", DB_PASSWORD);
     }
 
     public static String getDbDriver() {
         return DB_DRIVER;
     }
+
+    public static int getPoolMaxSize() {
+        return POOL_MAX_SIZE;
+    }
+
+    public static int getPoolMinIdle() {
+        return POOL_MIN_IDLE;
+    }
+
+    public static long getPoolMaxWaitMs() {
+        return POOL_MAX_WAIT_MS;
+    }
+
+    public static long getPoolIdleTimeoutMs() {
+        return POOL_IDLE_TIMEOUT_MS;
+    }
+
+    public static long getPoolLeakThresholdMs() {
+        return POOL_LEAK_THRESHOLD_MS;
+    }
+
+    public static int getPoolValidationTimeoutSec() {
+        return POOL_VALIDATION_TIMEOUT_SEC;
+    }
+
+    public static int getGuestCacheSize() {
+        return GUEST_CACHE_SIZE;
+    }
+
+    public static String getGuestSearchMode() {
+        return GUEST_SEARCH_MODE;
+    }
+
+    public static int getGuestSearchLimit() {
+        return GUEST_SEARCH_LIMIT;
+    }
+
+    public static int getGuestPickerLimit() {
+        return GUEST_PICKER_LIMIT;
+    }
+
+    public static int getBatchSize() {
+        return BATCH_SIZE;
+    }
 }
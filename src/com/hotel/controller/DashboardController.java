@@ -1,15 +1,17 @@
 package com.hotel.controller;
 
-import com.hotel.dao.*;
-import com.hotel.model.RoomStatus;
-import com.hotel.model.ReservationStatus;
+import com.hotel.dao.DaoRegistry;
+import com.hotel.dao.StatisticsDAO;
+import com.hotel.model.DashboardStatistics;
+import com.hotel.service.BackgroundExecutor;
 import com.hotel.util.NavigationUtil;
+import com.hotel.util.RefreshableView;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.layout.*;
 
-public class DashboardController {
+public class DashboardController implements RefreshableView {
     @FXML
     private Label totalGuestsLabel;
     @FXML
@@ -19,17 +21,11 @@ public class DashboardController {
     @FXML
     private Label totalRevenueLabel;
 
-    private GuestDAO guestDAO;
-    private RoomDAO roomDAO;
-    private ReservationDAO reservationDAO;
-    private PaymentDAO paymentDAO;
+    private StatisticsDAO statisticsDAO;
 
     public DashboardController() {
         System.out.println("DashboardController constructor starting...");
-        guestDAO = new GuestDAO();
-        roomDAO = new RoomDAO();
-        reservationDAO = new ReservationDAO();
-        paymentDAO = new PaymentDAO();
+        statisticsDAO = DaoRegistry.getInstance().getStatisticsDAO();
         System.out.println("DashboardController constructor completed");
     }
 
@@ -40,34 +36,32 @@ public class DashboardController {
     }
 
     private void loadStatistics() {
-        try {
-            // Total Guests
-            int totalGuests = guestDAO.getAllGuests().size();
-            totalGuestsLabel.setText(String.valueOf(totalGuests));
-
-            // Available Rooms
-            int availableRooms = roomDAO.getRoomsByStatus(RoomStatus.AVAILABLE).size();
-            availableRoomsLabel.setText(String.valueOf(availableRooms));
-
-            // Active Reservations (Confirmed + Checked In)
-            int confirmedReservations = reservationDAO.getReservationsByStatus(ReservationStatus.CONFIRMED).size();
-            int checkedInReservations = reservationDAO.getReservationsByStatus(ReservationStatus.CHECKED_IN).size();
-            int activeReservations = confirmedReservations + checkedInReservations;
-            activeReservationsLabel.setText(String.valueOf(activeReservations));
-
-            // Total Revenue
-            double totalRevenue = paymentDAO.getTotalRevenue();
-            totalRevenueLabel.setText(String.format("$%.2f", totalRevenue));
-        } catch (Exception e) {
-            System.err.println("Error loading dashboard statistics: " + e.getMessage());
-            e.printStackTrace();
-
-            // Set default values if database connection fails
-            totalGuestsLabel.setText("0");
-            availableRoomsLabel.setText("0");
-            activeReservationsLabel.setText("0");
-            totalRevenueLabel.setText("$0.00");
-        }
+        totalGuestsLabel.setText("...");
+        availableRoomsLabel.setText("...");
+        activeReservationsLabel.setText("...");
+        totalRevenueLabel.setText("...");
+
+        BackgroundExecutor.getInstance().submit(
+                statisticsDAO::getDashboardStatistics,
+                stats -> showStatistics(stats != null ? stats : new DashboardStatistics(0, 0, 0, 0.0)),
+                error -> {
+                    System.err.println("Error loading dashboard statistics: " + error.getMessage());
+
+                    // Set default values if database connection fails
+                    showStatistics(new DashboardStatistics(0, 0, 0, 0.0));
+                });
+    }
+
+    private void showStatistics(DashboardStatistics stats) {
+        totalGuestsLabel.setText(String.valueOf(stats.getTotalGuests()));
+        availableRoomsLabel.setText(String.valueOf(stats.getAvailableRooms()));
+        activeReservationsLabel.setText(String.valueOf(stats.getActiveReservations()));
+        totalRevenueLabel.setText(String.format("$%.2f", stats.getTotalRevenue()));
+    }
+
+    @Override
+    public void onViewShown() {
+        loadStatistics();
     }
 
     @FXML
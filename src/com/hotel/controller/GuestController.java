@@ -1,13 +1,23 @@
 package com.hotel.controller;
 
+import com.hotel.dao.DaoRegistry;
 import com.hotel.dao.GuestDAO;
 import com.hotel.model.Guest;
+import com.hotel.service.BackgroundExecutor;
+import com.hotel.service.CsvImportService;
 import com.hotel.util.*;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
-public class GuestController {
+import java.io.File;
+import java.util.concurrent.Callable;
+
+public class GuestController implements RefreshableView {
     @FXML
     private TableView<Guest> guestsTable;
     @FXML
@@ -25,6 +35,9 @@ public class GuestController {
     @FXML
     private TableColumn<Guest, String> addressColumn;
 
+    @FXML
+    private HBox tableActions;
+
     @FXML
     private TextField searchField;
     @FXML
@@ -42,8 +55,9 @@ public class GuestController {
     @FXML
     private TextArea addressArea;
 
-    private GuestDAO guestDAO = new GuestDAO();
+    private GuestDAO guestDAO = DaoRegistry.getInstance().getGuestDAO();
     private Guest selectedGuest = null;
+    private Task<?> loadTask;
 
     @FXML
     public void initialize() {
@@ -64,27 +78,65 @@ public class GuestController {
         }
     }
 
+    // Re-runs the current search, if any, so the table matches the search field
+    @Override
+    public void onViewShown() {
+        searchGuests();
+    }
+
     @FXML
     private void refreshGuests() {
-        guestsTable.setItems(guestDAO.getAllGuests());
+        loadGuests(() -> guestDAO.getAllGuests());
     }
 
     @FXML
     private void searchGuests() {
         String term = searchField.getText();
         if (term != null && !term.isEmpty()) {
-            guestsTable.setItems(guestDAO.searchGuests(term));
+            loadGuests(() -> guestDAO.searchGuests(term));
         } else {
             refreshGuests();
         }
     }
 
+    // Only the latest load may fill the table, so a slow earlier search cannot overwrite it
+    private void loadGuests(Callable<ObservableList<Guest>> query) {
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
+        guestsTable.setPlaceholder(new Label("Loading guests..."));
+        loadTask = BackgroundExecutor.getInstance().submit(query,
+                guests -> {
+                    guestsTable.setItems(guests);
+                    guestsTable.setPlaceholder(new Label("No guests found"));
+                },
+                error -> {
+                    guestsTable.setItems(FXCollections.observableArrayList());
+                    guestsTable.setPlaceholder(new Label("Could not load guests"));
+                });
+    }
+
     @FXML
     private void clearSearch() {
         searchField.clear();
         refreshGuests();
     }
 
+    // Runs detached so navigating away does not cut a long import short
+    @FXML
+    private void importGuests() {
+        File file = ImportUtil.chooseCsvFile(guestsTable, "Import Guests");
+        if (file == null) {
+            return;
+        }
+        BackgroundExecutor.getInstance().submitDetached(() -> CsvImportService.getInstance().importGuests(file),
+                result -> {
+                    ImportUtil.showResult("guests", result);
+                    refreshGuests();
+                },
+                error -> AlertUtil.showError("Import Failed", "Could not import guests", String.valueOf(error.getMessage())));
+    }
+
     @FXML
     private void showAddGuestForm() {
         selectedGuest = null;
@@ -131,13 +183,17 @@ public class GuestController {
                     idNumberField.getText(),
                     addressArea.getText());
 
-            if (guestDAO.addGuest(guest)) {
-                AlertUtil.showSuccess("Success", "Guest Added", " Guest has been added successfully.");
-                cancelGuestForm();
-                refreshGuests();
-            } else {
-                AlertUtil.showDatabaseError("add guest");
-            }
+            BackgroundExecutor.getInstance().submitWrite(guestFormPanel, () -> guestDAO.addGuest(guest),
+                    added -> {
+                        if (added) {
+                            AlertUtil.showSuccess("Success", "Guest Added", " Guest has been added successfully.");
+                            cancelGuestForm();
+                            refreshGuests();
+                        } else {
+                            AlertUtil.showDatabaseError("add guest");
+                        }
+                    },
+                    failure -> AlertUtil.showDatabaseError("add guest"));
         } else {
             // Update existing guest
             selectedGuest.setFirstName(firstNameField.getText());
@@ -147,13 +203,18 @@ public class GuestController {
             selectedGuest.setIdNumber(idNumberField.getText());
             selectedGuest.setAddress(addressArea.getText());
 
-            if (guestDAO.updateGuest(selectedGuest)) {
-                AlertUtil.showSuccess("Success", "Guest Updated", "Guest has been updated successfully.");
-                cancelGuestForm();
-                refreshGuests();
-            } else {
-                AlertUtil.showDatabaseError("update guest");
-            }
+            Guest guest = selectedGuest;
+            BackgroundExecutor.getInstance().submitWrite(guestFormPanel, () -> guestDAO.updateGuest(guest),
+                    updated -> {
+                        if (updated) {
+                            AlertUtil.showSuccess("Success", "Guest Updated", "Guest has been updated successfully.");
+                            cancelGuestForm();
+                            refreshGuests();
+                        } else {
+                            AlertUtil.showDatabaseError("update guest");
+                        }
+                    },
+                    failure -> AlertUtil.showDatabaseError("update guest"));
         }
     }
 
@@ -167,12 +228,16 @@ public class GuestController {
 
         if (AlertUtil.showConfirmation("Confirm Delete", "Delete Guest",
                 "Are you sure you want to delete " + guest.getFullName() + "?")) {
-            if (guestDAO.deleteGuest(guest.getId())) {
-                AlertUtil.showSuccess("Success", "Guest Deleted", "Guest has been deleted successfully.");
-                refreshGuests();
-            } else {
-                AlertUtil.showDatabaseError("delete guest");
-            }
+            BackgroundExecutor.getInstance().submitWrite(tableActions, () -> guestDAO.deleteGuest(guest.getId()),
+                    deleted -> {
+                        if (deleted) {
+                            AlertUtil.showSuccess("Success", "Guest Deleted", "Guest has been deleted successfully.");
+                            refreshGuests();
+                        } else {
+                            AlertUtil.showDatabaseError("delete guest");
+                        }
+                    },
+                    failure -> AlertUtil.showDatabaseError("delete guest"));
         }
     }
 
@@ -1,9 +1,11 @@
 package com.hotel.controller;
 
+import com.hotel.dao.DaoRegistry;
 import com.hotel.dao.UserDAO;
-import com.hotel.model.User;
+import com.hotel.service.BackgroundExecutor;
 import com.hotel.util.NavigationUtil;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
@@ -15,11 +17,13 @@ public class LoginController {
     private PasswordField passwordField;
     @FXML
     private Label errorLabel;
+    @FXML
+    private Button loginButton;
 
     private final UserDAO userDAO;
 
     public LoginController() {
-        this.userDAO = new UserDAO();
+        this.userDAO = DaoRegistry.getInstance().getUserDAO();
     }
 
     @FXML
@@ -32,13 +36,23 @@ public class LoginController {
             return;
         }
 
-        User user = userDAO.authenticate(username, password);
-        if (user != null) {
-            System.out.println("Login successful: " + user.getFullName());
-            NavigationUtil.loadDashboard();
-        } else {
-            showError("Invalid username or password");
-        }
+        loginButton.setDisable(true);
+        BackgroundExecutor.getInstance().submit(
+                () -> userDAO.authenticate(username, password),
+                user -> {
+                    loginButton.setDisable(false);
+                    if (user != null) {
+                        System.out.println("Login successful: " + user.getFullName());
+                        NavigationUtil.loadDashboard();
+                        NavigationUtil.preloadMainViews();
+                    } else {
+                        showError("Invalid username or password");
+                    }
+                },
+                error -> {
+                    loginButton.setDisable(false);
+                    showError("Could not reach the database");
+                });
     }
 
     private void showError(String message) {
@@ -2,17 +2,24 @@ package com.hotel.controller;
 
 import com.hotel.dao.*;
 import com.hotel.model.*;
+import com.hotel.service.BackgroundExecutor;
+import com.hotel.service.DatabaseManager;
+import com.hotel.service.IdAllocator;
 import com.hotel.util.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+public class PaymentController implements RefreshableView {
+    private static final int PAGE_SIZE = 50;
 
-public class PaymentController {
     @FXML
     private TableView<Payment> paymentsTable;
     @FXML
@@ -32,12 +39,21 @@ public class PaymentController {
     @FXML
     private TableColumn<Payment, String> transactionIdColumn;
 
+    @FXML
+    private Button previousPageButton;
+    @FXML
+    private Button nextPageButton;
+    @FXML
+    private Label pageLabel;
+
     @FXML
     private TextField searchField;
     @FXML
     private ComboBox<PaymentMethod> methodFilter;
     @FXML
     private ComboBox<PaymentStatus> statusFilter;
+    @FXML
+    private ComboBox<PaymentCriteria.Sort> sortComboBox;
 
     @FXML
     private Label totalPaymentsLabel;
@@ -46,10 +62,13 @@ public class PaymentController {
     @FXML
     private Label totalRevenueLabel;
 
+    @FXML
+    private HBox tableActions;
+
     @FXML
     private VBox paymentFormPanel;
     @FXML
-    private ComboBox<Reservation> reservationComboBox;
+    private ComboBox<OutstandingReservation> reservationComboBox;
     @FXML
     private Label reservationTotalLabel;
     @FXML
@@ -63,9 +82,21 @@ public class PaymentController {
     @FXML
     private TextArea notesArea;
 
-    private PaymentDAO paymentDAO = new PaymentDAO();
-    private ReservationDAO reservationDAO = new ReservationDAO();
-    private ObservableList<Payment> allPayments;
+    private PaymentDAO paymentDAO = DaoRegistry.getInstance().getPaymentDAO();
+    private ReservationDAO reservationDAO = DaoRegistry.getInstance().getReservationDAO();
+    // The current page; search and filters narrow it in memory
+    private final ObservableList<Payment> allPayments = FXCollections.observableArrayList();
+    private final SearchFilter<Payment> paymentFilter = new SearchFilter<>(allPayments, payment -> {
+        Reservation res = payment.getReservation();
+        String guestName = (res != null && res.getGuest() != null) ? res.getGuest().getFullName() : "";
+        return guestName + "\n" + payment.getTransactionId() + "\n" + payment.getId();
+    });
+    private StatisticsDAO statisticsDAO = DaoRegistry.getInstance().getStatisticsDAO();
+    private KeysetPager<Payment, Payment> paymentPager;
+    // Replaced, never modified, when filters change; read by the pager on a worker thread
+    private volatile PaymentCriteria paymentCriteria = new PaymentCriteria();
+    // True while the table shows sample data because the database is empty or unreachable
+    private boolean demoMode = false;
 
     @FXML
     public void initialize() {
@@ -146,46 +177,97 @@ public class PaymentController {
         paymentStatusComboBox.setItems(FXCollections.observableArrayList(PaymentStatus.values()));
         methodFilter.setItems(FXCollections.observableArrayList(PaymentMethod.values()));
         statusFilter.setItems(FXCollections.observableArrayList(PaymentStatus.values()));
+        sortComboBox.setItems(FXCollections.observableArrayList(PaymentCriteria.Sort.values()));
+
+        paymentFilter.bind(paymentsTable);
+        searchField.textProperty().addListener((obs, oldText, newText) -> paymentFilter.setSearchText(newText));
+
+        // The last row of a page is the cursor, since the seek needs its sort value as well as its id
+        paymentPager = new KeysetPager<>(PAGE_SIZE, payment -> payment,
+                (after, limit) -> paymentDAO.findPayments(paymentCriteria, after, limit));
+        paymentPager.setOnPageLoaded(this::onPaymentPageLoaded);
+        paymentPager.setOnLoadFailed(error -> {
+            System.err.println("Error refreshing payments: " + error.getMessage());
+            // Load sample data on error
+            showPayments(createSamplePayments(), true);
+        });
 
         try {
             refreshPayments();
-            updateStatistics();
         } catch (Exception e) {
             System.err.println("Warning: Could not load payments from database: " + e.getMessage());
             // View will load anyway, just with empty table
         }
     }
 
+    // Stays on the page the user left
+    @Override
+    public void onViewShown() {
+        paymentsTable.setPlaceholder(new Label("Loading payments..."));
+        paymentPager.reload();
+    }
+
     @FXML
     private void refreshPayments() {
-        try {
-            allPayments = paymentDAO.getAllPayments();
-            if (allPayments != null && !allPayments.isEmpty()) {
-                paymentsTable.setItems(allPayments);
-            } else {
-                // Load sample data if database is empty or unavailable
-                allPayments = createSamplePayments();
-                paymentsTable.setItems(allPayments);
-            }
-            updateStatistics();
-        } catch (Exception e) {
-            System.err.println("Error refreshing payments: " + e.getMessage());
-            // Load sample data on error
-            allPayments = createSamplePayments();
-            paymentsTable.setItems(allPayments);
-            updateStatistics();
+        paymentsTable.setPlaceholder(new Label("Loading payments..."));
+        paymentPager.firstPage();
+    }
+
+    @FXML
+    private void previousPage() {
+        paymentsTable.setPlaceholder(new Label("Loading payments..."));
+        paymentPager.previousPage();
+    }
+
+    @FXML
+    private void nextPage() {
+        paymentsTable.setPlaceholder(new Label("Loading payments..."));
+        paymentPager.nextPage();
+    }
+
+    private void onPaymentPageLoaded(ObservableList<Payment> page) {
+        if (!page.isEmpty() || paymentPager.hasPrevious() || paymentCriteria.isFiltered()) {
+            showPayments(page, false);
+        } else {
+            // Load sample data if database is empty or unavailable
+            showPayments(createSamplePayments(), true);
         }
     }
 
+    private void showPayments(ObservableList<Payment> payments, boolean sampleData) {
+        demoMode = sampleData;
+        allPayments.setAll(payments);
+        paymentsTable.setPlaceholder(new Label("No payments found"));
+
+        previousPageButton.setDisable(demoMode || !paymentPager.hasPrevious());
+        nextPageButton.setDisable(demoMode || !paymentPager.hasNext());
+        pageLabel.setText("Page " + (demoMode ? 1 : paymentPager.getPageNumber()));
+        updateStatistics();
+    }
+
+    // The table holds one page, so totals come from an aggregate query unless showing sample data
     private void updateStatistics() {
-        try {
-            if (allPayments == null) {
-                allPayments = paymentDAO.getAllPayments();
-                if (allPayments == null) {
-                    allPayments = FXCollections.observableArrayList();
-                }
-            }
+        if (demoMode) {
+            updateStatisticsFromTable();
+            return;
+        }
+
+        BackgroundExecutor.getInstance().submit(
+                statisticsDAO::getPaymentStatistics,
+                stats -> {
+                    if (stats != null) {
+                        totalPaymentsLabel.setText(String.valueOf(stats.getTotalPayments()));
+                        completedPaymentsLabel.setText(String.valueOf(stats.getCompletedPayments()));
+                        totalRevenueLabel.setText(String.format("$%.2f", stats.getTotalRevenue()));
+                    } else {
+                        updateStatisticsFromTable();
+                    }
+                },
+                error -> updateStatisticsFromTable());
+    }
 
+    private void updateStatisticsFromTable() {
+        try {
             totalPaymentsLabel.setText(String.valueOf(allPayments.size()));
 
             int completed = 0;
@@ -209,26 +291,11 @@ public class PaymentController {
         }
     }
 
+    // Typing narrows the loaded page; Search runs the term against the whole table
     @FXML
     private void searchPayments() {
-        String term = searchField.getText().toLowerCase().trim();
-        if (term.isEmpty()) {
-            paymentsTable.setItems(allPayments);
-            return;
-        }
-
-        ObservableList<Payment> filteredPayments = FXCollections.observableArrayList();
-        for (Payment payment : allPayments) {
-            Reservation res = payment.getReservation();
-            String guestName = (res != null && res.getGuest() != null) ? res.getGuest().getFullName() : "";
-
-            if (guestName.toLowerCase().contains(term) ||
-                    payment.getTransactionId().toLowerCase().contains(term) ||
-                    String.valueOf(payment.getId()).contains(term)) {
-                filteredPayments.add(payment);
-            }
-        }
-        paymentsTable.setItems(filteredPayments);
+        paymentFilter.applySearchText(searchField.getText());
+        applyFilters();
     }
 
     @FXML
@@ -236,26 +303,22 @@ public class PaymentController {
         searchField.clear();
         methodFilter.setValue(null);
         statusFilter.setValue(null);
-        refreshPayments();
+        sortComboBox.setValue(null);
+        paymentFilter.clear();
+        applyFilters();
     }
 
+    // Filters and sort order go to the database as one statement, so they cover every payment
+    // rather than just the loaded page
     @FXML
     private void applyFilters() {
-        ObservableList<Payment> filteredPayments = FXCollections.observableArrayList(allPayments);
-
-        // Filter by method
-        PaymentMethod selectedMethod = methodFilter.getValue();
-        if (selectedMethod != null) {
-            filteredPayments.removeIf(payment -> payment.getPaymentMethod() != selectedMethod);
-        }
-
-        // Filter by status
-        PaymentStatus selectedStatus = statusFilter.getValue();
-        if (selectedStatus != null) {
-            filteredPayments.removeIf(payment -> payment.getStatus() != selectedStatus);
-        }
-
-        paymentsTable.setItems(filteredPayments);
+        PaymentCriteria criteria = new PaymentCriteria();
+        criteria.setMethod(methodFilter.getValue());
+        criteria.setStatus(statusFilter.getValue());
+        criteria.setSearchTerm(searchField.getText());
+        criteria.setSort(sortComboBox.getValue());
+        paymentCriteria = criteria;
+        refreshPayments();
     }
 
     @FXML
@@ -267,56 +330,44 @@ public class PaymentController {
     }
 
     private void loadUnpaidReservations() {
-        try {
-            // Load reservations that are checked in or checked out
-            ObservableList<Reservation> reservations = reservationDAO.getAllReservations();
-
-            // If database is empty or unavailable, use sample reservations
-            if (reservations == null || reservations.isEmpty()) {
-                reservations = createSampleReservationsForPayments();
-            }
+        reservationComboBox.setPromptText("Loading reservations...");
+        BackgroundExecutor.getInstance().submit(
+                this::findUnpaidReservations,
+                unpaidReservations -> {
+                    reservationComboBox.setItems(unpaidReservations);
+                    reservationComboBox.setPromptText("Select reservation");
+                },
+                error -> {
+                    System.err.println("Error loading unpaid reservations: " + error.getMessage());
+                    reservationComboBox.setItems(FXCollections.observableArrayList());
+                    reservationComboBox.setPromptText("Select reservation");
+                });
+    }
 
-            ObservableList<Reservation> unpaidReservations = FXCollections.observableArrayList();
+    // Runs on a background thread
+    private ObservableList<OutstandingReservation> findUnpaidReservations() {
+        ObservableList<OutstandingReservation> unpaidReservations = reservationDAO.findOutstandingReservations();
 
-            for (Reservation res : reservations) {
+        // An empty list is normal when everything is paid; sample data only without a database
+        if (unpaidReservations.isEmpty() && !DatabaseManager.getInstance().testConnection()) {
+            for (Reservation res : createSampleReservationsForPayments()) {
                 if (res.getStatus() == ReservationStatus.CHECKED_IN ||
                         res.getStatus() == ReservationStatus.CHECKED_OUT) {
-
-                    boolean isPaid = false;
-                    try {
-                        // Check if already paid
-                        ObservableList<Payment> payments = paymentDAO.getPaymentsByReservation(res.getId());
-                        for (Payment p : payments) {
-                            if (p.getStatus() == PaymentStatus.COMPLETED) {
-                                isPaid = true;
-                                break;
-                            }
-                        }
-                    } catch (Exception e) {
-                        // In demo mode, assume it's not paid yet
-                        System.out.println("DEBUG: Database error checking payment status, assuming unpaid");
-                    }
-
-                    if (!isPaid) {
-                        unpaidReservations.add(res);
-                    }
+                    unpaidReservations.add(new OutstandingReservation(res, 0, 0));
                 }
             }
-
-            reservationComboBox.setItems(unpaidReservations);
-        } catch (Exception e) {
-            System.err.println("Error loading unpaid reservations: " + e.getMessage());
-            reservationComboBox.setItems(FXCollections.observableArrayList());
         }
+        return unpaidReservations;
     }
 
     @FXML
     private void onReservationSelected() {
-        Reservation selected = reservationComboBox.getValue();
+        OutstandingReservation selected = reservationComboBox.getValue();
         if (selected != null) {
-            double total = selected.getTotalPrice();
-            reservationTotalLabel.setText(String.format("Total: $%.2f", total));
-            amountField.setText(String.valueOf(total));
+            // Suggest what is still owed, not the full total, when part has been paid already
+            double balance = selected.getBalanceDue();
+            reservationTotalLabel.setText(String.format("Due: $%.2f of $%.2f", balance, selected.getAmountDue()));
+            amountField.setText(String.format(Locale.ROOT, "%.2f", balance));
         } else {
             reservationTotalLabel.setText("Total: $0.00");
             amountField.clear();
@@ -332,20 +383,15 @@ public class PaymentController {
             return;
         }
 
-        Reservation reservation = reservationComboBox.getValue();
+        Reservation reservation = reservationComboBox.getValue().getReservation();
         double amount = Double.parseDouble(amountField.getText());
         PaymentMethod method = methodComboBox.getValue();
         PaymentStatus status = paymentStatusComboBox.getValue();
         String transactionId = transactionIdField.getText().trim();
         String notes = notesArea.getText().trim();
 
-        // Generate a temporary ID for demo mode
-        int newId = allPayments.stream()
-                .mapToInt(Payment::getId)
-                .max()
-                .orElse(0) + 1;
-
-        Payment payment = new Payment(newId,
+        // The database assigns the id
+        Payment payment = new Payment(0,
                 reservation,
                 amount,
                 method,
@@ -354,20 +400,22 @@ public class PaymentController {
                 transactionId,
                 notes);
 
-        boolean dbSuccess = false;
-        try {
-            dbSuccess = paymentDAO.addPayment(payment);
-        } catch (Exception e) {
-            System.err.println("Database error during payment recording: " + e.getMessage());
-        }
+        BackgroundExecutor.getInstance().submitWrite(paymentFormPanel, () -> paymentDAO.addPayment(payment),
+                recorded -> onPaymentRecorded(payment, recorded),
+                failure -> {
+                    System.err.println("Database error during payment recording: " + failure.getMessage());
+                    onPaymentRecorded(payment, false);
+                });
+    }
 
+    private void onPaymentRecorded(Payment payment, boolean dbSuccess) {
         if (dbSuccess) {
             AlertUtil.showSuccess("Success", "Payment Recorded", "Payment has been recorded successfully.");
             refreshPayments();
         } else {
             // Demo mode fallback
+            payment.setId(IdAllocator.getInstance().nextLocalId());
             allPayments.add(0, payment); // Add to top of list
-            paymentsTable.setItems(allPayments);
             updateStatistics();
 
             AlertUtil.showSuccess("Success", "Payment Recorded (Demo Mode)",
@@ -421,23 +469,26 @@ public class PaymentController {
                 String.format("Are you sure you want to refund $%.2f?", payment.getAmount()))) {
             payment.setStatus(PaymentStatus.REFUNDED);
 
-            boolean dbSuccess = false;
-            try {
-                dbSuccess = paymentDAO.updatePayment(payment);
-            } catch (Exception e) {
-                System.err.println("Database error during refund: " + e.getMessage());
-            }
+            BackgroundExecutor.getInstance().submitWrite(tableActions, () -> paymentDAO.updatePayment(payment),
+                    this::onPaymentRefunded,
+                    failure -> {
+                        System.err.println("Database error during refund: " + failure.getMessage());
+                        onPaymentRefunded(false);
+                    });
+        }
+    }
 
-            if (dbSuccess) {
-                AlertUtil.showSuccess("Success", "Payment Refunded", "Payment has been refunded successfully.");
-                refreshPayments();
-            } else {
-                // Demo mode fallback
-                paymentsTable.refresh();
-                updateStatistics();
-                AlertUtil.showSuccess("Success", "Payment Refunded (Demo Mode)",
-                        "Status updated in table. Note: Changes won't persist without database connection.");
-            }
+    private void onPaymentRefunded(boolean dbSuccess) {
+        if (dbSuccess) {
+            AlertUtil.showSuccess("Success", "Payment Refunded", "Payment has been refunded successfully.");
+            refreshPayments();
+        } else {
+            // Demo mode fallback
+            paymentFilter.refresh();
+            paymentsTable.refresh();
+            updateStatistics();
+            AlertUtil.showSuccess("Success", "Payment Refunded (Demo Mode)",
+                    "Status updated in table. Note: Changes won't persist without database connection.");
         }
     }
 
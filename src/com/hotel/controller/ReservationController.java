@@ -1,18 +1,32 @@
 package com.hotel.controller;
 
+import com.hotel.config.DatabaseConfig;
 import com.hotel.dao.*;
 import com.hotel.model.*;
+import com.hotel.service.BackgroundExecutor;
+import com.hotel.service.DatabaseManager;
+import com.hotel.service.IdAllocator;
+import com.hotel.service.ReservationWorkflowService;
+import com.hotel.service.WorkflowResult;
 import com.hotel.util.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
 import javafx.fxml.FXML;
+import javafx.scene.Node;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+public class ReservationController implements RefreshableView {
+    private static final int PAGE_SIZE = 50;
 
-public class ReservationController {
     @FXML
     private TableView<Reservation> reservationsTable;
     @FXML
@@ -34,18 +48,34 @@ public class ReservationController {
     @FXML
     private TableColumn<Reservation, String> notesColumn;
 
+    @FXML
+    private Button previousPageButton;
+    @FXML
+    private Button nextPageButton;
+    @FXML
+    private Label pageLabel;
+
     @FXML
     private TextField searchField;
     @FXML
     private ComboBox<ReservationStatus> statusFilter;
+    @FXML
+    private ComboBox<ReservationCriteria.Sort> sortComboBox;
+
+    @FXML
+    private HBox tableActions;
 
     @FXML
     private VBox reservationFormPanel;
     @FXML
-    private ComboBox<Guest> guestComboBox;
+    private ComboBox<GuestSummary> guestComboBox;
     @FXML
     private ComboBox<Room> roomComboBox;
     @FXML
+    private ComboBox<RoomType> roomTypeFilter;
+    @FXML
+    private Spinner<Integer> guestCountSpinner;
+    @FXML
     private DatePicker checkInDatePicker;
     @FXML
     private DatePicker checkOutDatePicker;
@@ -62,11 +92,25 @@ public class ReservationController {
     @FXML
     private Label conflictWarningLabel;
 
-    private ReservationDAO reservationDAO = new ReservationDAO();
-    private GuestDAO guestDAO = new GuestDAO();
-    private RoomDAO roomDAO = new RoomDAO();
+    private ReservationDAO reservationDAO = DaoRegistry.getInstance().getReservationDAO();
+    private GuestDAO guestDAO = DaoRegistry.getInstance().getGuestDAO();
+    private RoomDAO roomDAO = DaoRegistry.getInstance().getRoomDAO();
+    private ReservationWorkflowService workflowService = ReservationWorkflowService.getInstance();
     private Reservation selectedReservation = null;
-    private ObservableList<Reservation> allReservations;
+    // The current page; search and status filter narrow it in memory
+    private final ObservableList<Reservation> allReservations = FXCollections.observableArrayList();
+    private final SearchFilter<Reservation> reservationFilter = new SearchFilter<>(allReservations,
+            reservation -> reservation.getGuestName() + "\n" + reservation.getRoomNumber() + "\n" +
+                    reservation.getId());
+    private KeysetPager<Reservation, Reservation> reservationPager;
+    // Replaced, never modified, when filters change; read by the pager on a worker thread
+    private volatile ReservationCriteria reservationCriteria = new ReservationCriteria();
+    private AutoCompletePicker<GuestSummary> guestPicker;
+    // Full record of the guest chosen in the picker, loaded by id on selection
+    private Guest selectedGuest;
+    private Task<Guest> guestTask;
+    private Task<?> roomsTask;
+    private Task<Boolean> conflictTask;
 
     @FXML
     public void initialize() {
@@ -146,6 +190,35 @@ public class ReservationController {
         // Populate dropdowns
         statusComboBox.setItems(FXCollections.observableArrayList(ReservationStatus.values()));
         statusFilter.setItems(FXCollections.observableArrayList(ReservationStatus.values()));
+        sortComboBox.setItems(FXCollections.observableArrayList(ReservationCriteria.Sort.values()));
+
+        reservationFilter.bind(reservationsTable);
+        searchField.textProperty().addListener((obs, oldText, newText) -> reservationFilter.setSearchText(newText));
+
+        // Room search filters; the blank type entry means any type
+        ObservableList<RoomType> roomTypes = FXCollections.observableArrayList((RoomType) null);
+        roomTypes.addAll(RoomType.values());
+        roomTypeFilter.setItems(roomTypes);
+        guestCountSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 10, 1));
+        guestCountSpinner.valueProperty().addListener((obs, oldValue, newValue) -> reloadAvailableRooms());
+
+        // Guests are looked up by prefix as the user types instead of loading the whole table
+        int pickerLimit = DatabaseConfig.getGuestPickerLimit();
+        guestPicker = new AutoCompletePicker<>(guestComboBox, GuestSummary::getDisplayName,
+                prefix -> guestDAO.findGuestSummaries(prefix, pickerLimit));
+        guestComboBox.valueProperty().addListener((obs, oldValue, newValue) -> loadSelectedGuest(newValue));
+
+        // The last row of a page is the cursor, since the seek needs its sort value as well as its id
+        reservationPager = new KeysetPager<>(PAGE_SIZE, reservation -> reservation,
+                (after, limit) -> reservationDAO.findReservations(reservationCriteria, after, limit));
+        reservationPager.setOnPageLoaded(this::onReservationPageLoaded);
+        reservationPager.setOnLoadFailed(error -> {
+            System.err.println("Error refreshing reservations: " + error.getMessage());
+            // Load sample data on error
+            System.out.println("DEBUG: Error occurred, loading sample data");
+            showReservations(createSampleReservations());
+            updatePagingControls(false);
+        });
 
         try {
             refreshReservations();
@@ -155,33 +228,58 @@ public class ReservationController {
         }
     }
 
+    // Stays on the page the user left; an open form gets fresh room availability
+    @Override
+    public void onViewShown() {
+        reservationsTable.setPlaceholder(new Label("Loading reservations..."));
+        reservationPager.reload();
+        reloadAvailableRooms();
+    }
+
     @FXML
     private void refreshReservations() {
-        try {
-            allReservations = reservationDAO.getAllReservations();
-            System.out.println("DEBUG: getAllReservations returned: " +
-                    (allReservations == null ? "null" : allReservations.size() + " items"));
+        reservationsTable.setPlaceholder(new Label("Loading reservations..."));
+        reservationPager.firstPage();
+    }
 
-            if (allReservations != null && !allReservations.isEmpty()) {
-                System.out.println("DEBUG: Using database reservations");
-                reservationsTable.setItems(allReservations);
-            } else {
-                // Add sample data if database is empty or unavailable
-                System.out.println("DEBUG: Database empty, loading sample data");
-                allReservations = createSampleReservations();
-                System.out.println("DEBUG: Sample data created: " + allReservations.size() + " items");
-                reservationsTable.setItems(allReservations);
-            }
-        } catch (Exception e) {
-            System.err.println("Error refreshing reservations: " + e.getMessage());
-            e.printStackTrace();
-            // Load sample data on error
-            System.out.println("DEBUG: Error occurred, loading sample data");
-            allReservations = createSampleReservations();
-            reservationsTable.setItems(allReservations);
+    @FXML
+    private void previousPage() {
+        reservationsTable.setPlaceholder(new Label("Loading reservations..."));
+        reservationPager.previousPage();
+    }
+
+    @FXML
+    private void nextPage() {
+        reservationsTable.setPlaceholder(new Label("Loading reservations..."));
+        reservationPager.nextPage();
+    }
+
+    private void onReservationPageLoaded(ObservableList<Reservation> page) {
+        System.out.println("DEBUG: Reservation page " + reservationPager.getPageNumber() + " returned: " +
+                page.size() + " items");
+
+        if (!page.isEmpty() || reservationPager.hasPrevious() || reservationCriteria.isFiltered()) {
+            showReservations(page);
+            updatePagingControls(true);
+        } else {
+            // Add sample data if database is empty or unavailable
+            System.out.println("DEBUG: Database empty, loading sample data");
+            showReservations(createSampleReservations());
+            updatePagingControls(false);
         }
     }
 
+    private void updatePagingControls(boolean pagingEnabled) {
+        previousPageButton.setDisable(!pagingEnabled || !reservationPager.hasPrevious());
+        nextPageButton.setDisable(!pagingEnabled || !reservationPager.hasNext());
+        pageLabel.setText("Page " + (pagingEnabled ? reservationPager.getPageNumber() : 1));
+    }
+
+    private void showReservations(ObservableList<Reservation> reservations) {
+        allReservations.setAll(reservations);
+        reservationsTable.setPlaceholder(new Label("No reservations found"));
+    }
+
     private ObservableList<Reservation> createSampleReservations() {
         ObservableList<Reservation> sampleData = FXCollections.observableArrayList();
 
@@ -219,77 +317,129 @@ public class ReservationController {
         return sampleData;
     }
 
+    // Typing narrows the loaded page; Search runs the term against the whole table
     @FXML
     private void searchReservations() {
-        String term = searchField.getText().toLowerCase().trim();
-        if (term.isEmpty()) {
-            reservationsTable.setItems(allReservations);
-            return;
-        }
-
-        ObservableList<Reservation> filteredReservations = FXCollections.observableArrayList();
-        for (Reservation reservation : allReservations) {
-            if (reservation.getGuestName().toLowerCase().contains(term) ||
-                    reservation.getRoomNumber().toLowerCase().contains(term) ||
-                    String.valueOf(reservation.getId()).contains(term)) {
-                filteredReservations.add(reservation);
-            }
-        }
-        reservationsTable.setItems(filteredReservations);
+        reservationFilter.applySearchText(searchField.getText());
+        applyFilters();
     }
 
     @FXML
     private void clearSearch() {
         searchField.clear();
         statusFilter.setValue(null);
-        refreshReservations();
+        sortComboBox.setValue(null);
+        reservationFilter.clear();
+        applyFilters();
     }
 
+    // Filters and sort order go to the database as one statement, so they cover every reservation
+    // rather than just the loaded page
     @FXML
     private void applyFilters() {
-        ReservationStatus selectedStatus = statusFilter.getValue();
-        if (selectedStatus == null) {
-            reservationsTable.setItems(allReservations);
-            return;
-        }
-
-        ObservableList<Reservation> filteredReservations = reservationDAO.getReservationsByStatus(selectedStatus);
-        reservationsTable.setItems(filteredReservations);
+        ReservationCriteria criteria = new ReservationCriteria();
+        criteria.setStatus(statusFilter.getValue());
+        criteria.setSearchTerm(searchField.getText());
+        criteria.setSort(sortComboBox.getValue());
+        reservationCriteria = criteria;
+        refreshReservations();
     }
 
     @FXML
     private void showAddReservationForm() {
         selectedReservation = null;
         clearForm();
-        loadGuestsAndRooms();
+        loadAvailableRooms();
         reservationFormPanel.setVisible(true);
         reservationFormPanel.setManaged(true);
     }
 
-    private void loadGuestsAndRooms() {
-        try {
-            // Load all guests
-            ObservableList<Guest> guests = guestDAO.getAllGuests();
-            if (guests != null) {
-                guestComboBox.setItems(guests);
-            } else {
-                guestComboBox.setItems(FXCollections.observableArrayList());
-            }
+    private void loadSelectedGuest(GuestSummary summary) {
+        if (guestTask != null) {
+            guestTask.cancel();
+            guestTask = null;
+        }
+        if (summary == null) {
+            selectedGuest = null;
+            return;
+        }
+        if (selectedGuest != null && selectedGuest.getId() == summary.getId()) {
+            return;
+        }
 
-            // Load available rooms
-            ObservableList<Room> rooms = roomDAO.getRoomsByStatus(RoomStatus.AVAILABLE);
-            if (rooms != null) {
-                roomComboBox.setItems(rooms);
-            } else {
-                roomComboBox.setItems(FXCollections.observableArrayList());
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading guests and rooms: " + e.getMessage());
-            guestComboBox.setItems(FXCollections.observableArrayList());
-            roomComboBox.setItems(FXCollections.observableArrayList());
+        selectedGuest = null;
+        guestTask = BackgroundExecutor.getInstance().submit(
+                () -> guestDAO.getGuestById(summary.getId()),
+                guest -> {
+                    GuestSummary current = guestComboBox.getValue();
+                    if (guest != null && current != null && current.getId() == guest.getId()) {
+                        selectedGuest = guest;
+                    }
+                },
+                error -> System.err.println("Error loading guest: " + error.getMessage()));
+    }
+
+    // The load started on selection is normally done by the time the form is saved
+    private Guest getSelectedGuest() {
+        GuestSummary summary = guestComboBox.getValue();
+        if (summary == null) {
+            return null;
+        }
+        if (selectedGuest == null || selectedGuest.getId() != summary.getId()) {
+            selectedGuest = guestDAO.getGuestById(summary.getId());
+        }
+        return selectedGuest;
+    }
+
+    // Offers the rooms that are free for the selected dates and match the type/guest filters
+    private void loadAvailableRooms() {
+        LocalDate checkIn = checkInDatePicker.getValue();
+        LocalDate checkOut = checkOutDatePicker.getValue();
+        RoomType type = roomTypeFilter.getValue();
+        int guestCount = guestCountSpinner.getValue();
+        int editedId = selectedReservation != null ? selectedReservation.getId() : 0;
+
+        if (roomsTask != null) {
+            roomsTask.cancel();
+        }
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            setRoomOptions(FXCollections.observableArrayList());
+            return;
+        }
+
+        roomComboBox.setPromptText("Loading rooms...");
+        roomsTask = BackgroundExecutor.getInstance().submit(
+                () -> roomDAO.findAvailableRooms(checkIn, checkOut, type, guestCount, editedId),
+                this::setRoomOptions,
+                error -> {
+                    System.err.println("Error loading available rooms: " + error.getMessage());
+                    setRoomOptions(FXCollections.observableArrayList());
+                });
+    }
+
+    private void setRoomOptions(ObservableList<Room> rooms) {
+        Room currentRoom = roomComboBox.getValue();
+        roomComboBox.setItems(rooms);
+        roomComboBox.setPromptText("Select available room");
+
+        // Keep the chosen room selected; if it is no longer free the conflict check says so
+        if (currentRoom != null) {
+            Room match = rooms.stream()
+                    .filter(r -> r.getRoomNumber().equals(currentRoom.getRoomNumber()))
+                    .findFirst()
+                    .orElse(currentRoom);
+            roomComboBox.setValue(match);
         }
     }
 
+    @FXML
+    private void reloadAvailableRooms() {
+        if (reservationFormPanel.isVisible()) {
+            loadAvailableRooms();
+        }
+        calculateTotal();
+    }
+
     @FXML
     private void editReservation() {
         selectedReservation = reservationsTable.getSelectionModel().getSelectedItem();
@@ -298,12 +448,17 @@ public class ReservationController {
             return;
         }
 
-        loadGuestsAndRooms();
-
-        guestComboBox.setValue(selectedReservation.getGuest());
-        roomComboBox.setValue(selectedReservation.getRoom());
         checkInDatePicker.setValue(selectedReservation.getCheckInDate());
         checkOutDatePicker.setValue(selectedReservation.getCheckOutDate());
+        roomComboBox.setValue(null);
+
+        // Room list depends on the dates, so load it after they are set
+        loadAvailableRooms();
+
+        Guest guest = selectedReservation.getGuest();
+        selectedGuest = guest;
+        guestPicker.select(guest != null ? GuestSummary.of(guest) : null);
+        roomComboBox.setValue(selectedReservation.getRoom());
         statusComboBox.setValue(selectedReservation.getStatus());
         notesArea.setText(selectedReservation.getNotes());
 
@@ -351,33 +506,16 @@ public class ReservationController {
             return;
         }
 
-        // Check if room is already booked for these dates
-        ObservableList<Reservation> existingReservations = reservationDAO
-                .getReservationsByRoom(selectedRoom.getRoomNumber());
-
-        for (Reservation res : existingReservations) {
-            // Skip the current reservation being edited
-            if (selectedReservation != null && res.getId() == selectedReservation.getId()) {
-                continue;
-            }
-
-            // Skip cancelled reservations
-            if (res.getStatus() == ReservationStatus.CANCELLED ||
-                    res.getStatus() == ReservationStatus.CHECKED_OUT) {
-                continue;
-            }
-
-            // Check for date overlap
-            boolean overlap = !(checkOut.isBefore(res.getCheckInDate()) || checkOut.isEqual(res.getCheckInDate()) ||
-                    checkIn.isAfter(res.getCheckOutDate()) || checkIn.isEqual(res.getCheckOutDate()));
-
-            if (overlap) {
-                conflictWarningLabel.setText("⚠ Room is already booked for selected dates!");
-                return;
-            }
+        // Check if room is already booked for these dates, ignoring the reservation being edited
+        int editedId = selectedReservation != null ? selectedReservation.getId() : 0;
+        String roomNumber = selectedRoom.getRoomNumber();
+        if (conflictTask != null) {
+            conflictTask.cancel();
         }
-
-        conflictWarningLabel.setText("");
+        conflictTask = BackgroundExecutor.getInstance().submit(
+                () -> reservationDAO.isRoomAvailable(roomNumber, checkIn, checkOut, editedId),
+                available -> conflictWarningLabel.setText(available ? "" : "⚠ Room is already booked for selected dates!"),
+                error -> conflictWarningLabel.setText(""));
     }
 
     @FXML
@@ -389,93 +527,133 @@ public class ReservationController {
             return;
         }
 
-        Guest guest = guestComboBox.getValue();
+        Guest guest = getSelectedGuest();
+        if (guest == null) {
+            AlertUtil.showValidationError("The selected guest no longer exists.");
+            return;
+        }
         Room room = roomComboBox.getValue();
         LocalDate checkIn = checkInDatePicker.getValue();
         LocalDate checkOut = checkOutDatePicker.getValue();
         long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
         double totalPrice = nights * room.getPricePerNight();
 
-        if (selectedReservation == null) {
-            // Add new reservation
-            // Generate a unique ID for the reservation (max ID + 1)
-            int newId = allReservations.stream()
-                    .mapToInt(Reservation::getId)
-                    .max()
-                    .orElse(0) + 1;
-
-            Reservation reservation = new Reservation(newId,
-                    guest,
-                    room,
-                    checkIn,
-                    checkOut,
-                    statusComboBox.getValue(),
-                    totalPrice,
-                    notesArea.getText().trim());
-
-            boolean dbSuccess = false;
-            try {
-                dbSuccess = reservationDAO.addReservation(reservation);
-            } catch (Exception e) {
-                System.err.println("Database error: " + e.getMessage());
-            }
-
-            if (dbSuccess) {
-                // Update room status if confirmed or checked in
-                if (reservation.getStatus() == ReservationStatus.CONFIRMED ||
-                        reservation.getStatus() == ReservationStatus.CHECKED_IN) {
-                    room.setStatus(RoomStatus.OCCUPIED);
-                    try {
-                        roomDAO.updateRoom(room);
-                    } catch (Exception e) {
-                        System.err.println("Error updating room status: " + e.getMessage());
-                    }
-                }
-
-                // Add to local list and update table
-                allReservations.add(reservation);
-                reservationsTable.setItems(allReservations);
-                // Also sort by ID or newest first if needed, but for now just add
+        // The workflow runs on a copy; rows shown in the table only change here, once it has finished
+        Reservation edited = new Reservation(selectedReservation != null ? selectedReservation.getId() : 0,
+                guest,
+                copyOf(room),
+                checkIn,
+                checkOut,
+                statusComboBox.getValue(),
+                totalPrice,
+                notesArea.getText().trim());
 
-                AlertUtil.showSuccess("Success", "Reservation Created", "Reservation has been created successfully.");
-            } else {
-                // Database failed, but add to local list for testing
-                System.out.println("DEBUG: Database unavailable, adding to local list");
-                allReservations.add(reservation);
-                reservationsTable.setItems(allReservations);
-
-                AlertUtil.showSuccess("Success", "Reservation Created (Demo Mode)",
-                        "Reservation added to table. Note: Changes won't persist without database connection.");
-            }
-
-            cancelReservationForm();
+        if (selectedReservation == null) {
+            // Add new reservation; the database assigns the id.
+            // The reservation, its nights and the room status are committed together
+            runWorkflow(reservationFormPanel, () -> workflowService.book(edited),
+                    result -> {
+                        if (result.getStatus() == WorkflowResult.Status.CONFLICT) {
+                            AlertUtil.showWarning("Room Unavailable", "Cannot Create Reservation", result.getMessage());
+                            reloadAvailableRooms();
+                        } else if (result.isCompleted()) {
+                            // Add to local list and update table
+                            allReservations.add(edited);
+                            AlertUtil.showSuccess("Success", "Reservation Created",
+                                    "Reservation has been created successfully.");
+                            cancelReservationForm();
+                        } else {
+                            // The database is up but the transaction rolled back; nothing was stored
+                            AlertUtil.showError("Database Error", "Cannot Create Reservation", result.getMessage());
+                            refreshReservations();
+                        }
+                    },
+                    () -> {
+                        // No database, but add to local list for testing
+                        System.out.println("DEBUG: Database unavailable, adding to local list");
+                        edited.setId(IdAllocator.getInstance().nextLocalId());
+                        allReservations.add(edited);
+
+                        AlertUtil.showSuccess("Success", "Reservation Created (Demo Mode)",
+                                "Reservation added to table. Note: Changes won't persist without database connection.");
+                        cancelReservationForm();
+                    });
         } else {
             // Update existing reservation
-            selectedReservation.setGuest(guest);
-            selectedReservation.setRoom(room);
-            selectedReservation.setCheckInDate(checkIn);
-            selectedReservation.setCheckOutDate(checkOut);
-            selectedReservation.setStatus(statusComboBox.getValue());
-            selectedReservation.setTotalPrice(totalPrice);
-            selectedReservation.setNotes(notesArea.getText().trim());
-
-            boolean dbSuccess = false;
-            try {
-                dbSuccess = reservationDAO.updateReservation(selectedReservation);
-            } catch (Exception e) {
-                System.err.println("Database error during update: " + e.getMessage());
-            }
+            Reservation original = selectedReservation;
+            runWorkflow(reservationFormPanel, () -> workflowService.update(edited),
+                    result -> {
+                        if (result.getStatus() == WorkflowResult.Status.CONFLICT) {
+                            AlertUtil.showWarning("Room Unavailable", "Cannot Update Reservation", result.getMessage());
+                            refreshReservations();
+                        } else if (result.isCompleted()) {
+                            applyEdits(original, edited, room);
+                            AlertUtil.showSuccess("Success", "Reservation Updated",
+                                    "Reservation has been updated successfully.");
+                            cancelReservationForm();
+                        } else {
+                            // Rolled back, so the row keeps its stored values
+                            AlertUtil.showError("Database Error", "Cannot Update Reservation", result.getMessage());
+                            refreshReservations();
+                        }
+                    },
+                    () -> {
+                        applyEdits(original, edited, room);
+                        AlertUtil.showSuccess("Success", "Reservation Updated (Demo Mode)",
+                                "Changes applied to table. Note: Changes won't persist without database connection.");
+                        cancelReservationForm();
+                    });
+        }
+    }
 
-            if (dbSuccess) {
-                AlertUtil.showSuccess("Success", "Reservation Updated", "Reservation has been updated successfully.");
-            } else {
-                AlertUtil.showSuccess("Success", "Reservation Updated (Demo Mode)",
-                        "Changes applied to table. Note: Changes won't persist without database connection.");
-            }
+    private void applyEdits(Reservation reservation, Reservation edited, Room room) {
+        reservation.setGuest(edited.getGuest());
+        reservation.setRoom(room);
+        reservation.setCheckInDate(edited.getCheckInDate());
+        reservation.setCheckOutDate(edited.getCheckOutDate());
+        reservation.setStatus(edited.getStatus());
+        reservation.setTotalPrice(edited.getTotalPrice());
+        reservation.setNotes(edited.getNotes());
+        reservationFilter.refresh();
+        reservationsTable.refresh();
+    }
+
+    // Workflow calls run off the FX thread with controls disabled. A FAILED result only falls back to
+    // demo mode when the database cannot be reached, and that is checked on the worker thread too.
+    private void runWorkflow(Node controls, Callable<WorkflowResult> call, Consumer<WorkflowResult> onResult,
+            Runnable onNoDatabase) {
+        BackgroundExecutor.getInstance().submitWrite(controls,
+                () -> {
+                    WorkflowResult result = call.call();
+                    boolean noDatabase = result.getStatus() == WorkflowResult.Status.FAILED &&
+                            !DatabaseManager.getInstance().testConnection();
+                    // null tells the callback below to take the demo mode path
+                    return noDatabase ? null : result;
+                },
+                result -> {
+                    if (result == null) {
+                        onNoDatabase.run();
+                    } else {
+                        onResult.accept(result);
+                    }
+                },
+                failure -> AlertUtil.showError("Database Error", "Operation Failed", String.valueOf(failure.getMessage())));
+    }
 
-            reservationsTable.refresh();
-            cancelReservationForm();
+    // The workflow updates the reservation and room it is given once it commits, on the worker
+    // thread; copies keep those changes away from objects the tables are showing
+    private static Reservation copyOf(Reservation reservation) {
+        return new Reservation(reservation.getId(), reservation.getGuest(), copyOf(reservation.getRoom()),
+                reservation.getCheckInDate(), reservation.getCheckOutDate(), reservation.getStatus(),
+                reservation.getTotalPrice(), reservation.getNotes());
+    }
+
+    private static Room copyOf(Room room) {
+        if (room == null) {
+            return null;
         }
+        return new Room(room.getRoomNumber(), room.getType(), room.getStatus(), room.getPricePerNight(),
+                room.getDescription(), room.getMaxOccupancy());
     }
 
     @FXML
@@ -487,38 +665,9 @@ public class ReservationController {
             return;
         }
 
-        if (reservation.getStatus() != ReservationStatus.CONFIRMED) {
-            AlertUtil.showWarning("Invalid Status", "Cannot Check In",
-                    "Only confirmed reservations can be checked in.");
-            return;
-        }
-
-        reservation.setStatus(ReservationStatus.CHECKED_IN);
-        boolean dbSuccess = false;
-        try {
-            dbSuccess = reservationDAO.updateReservation(reservation);
-        } catch (Exception e) {
-            System.err.println("Database error during check-in: " + e.getMessage());
-        }
-
-        if (dbSuccess) {
-            // Update room status
-            Room room = reservation.getRoom();
-            room.setStatus(RoomStatus.OCCUPIED);
-            try {
-                roomDAO.updateRoom(room);
-            } catch (Exception e) {
-                System.err.println("Error updating room status: " + e.getMessage());
-            }
-
-            AlertUtil.showSuccess("Success", "Checked In", "Guest has been checked in successfully.");
-            refreshReservations();
-        } else {
-            // Demo mode fallback
-            reservationsTable.refresh();
-            AlertUtil.showSuccess("Success", "Checked In (Demo Mode)",
-                    "Guest status updated in table. Note: Changes won't persist without database.");
-        }
+        Reservation target = copyOf(reservation);
+        runWorkflowAction(() -> workflowService.checkIn(target), reservation, ReservationStatus.CHECKED_IN,
+                "Check In", "Checked In", "Guest has been checked in successfully.");
     }
 
     @FXML
@@ -530,38 +679,9 @@ public class ReservationController {
             return;
         }
 
-        if (reservation.getStatus() != ReservationStatus.CHECKED_IN) {
-            AlertUtil.showWarning("Invalid Status", "Cannot Check Out",
-                    "Only checked-in reservations can be checked out.");
-            return;
-        }
-
-        reservation.setStatus(ReservationStatus.CHECKED_OUT);
-        boolean dbSuccess = false;
-        try {
-            dbSuccess = reservationDAO.updateReservation(reservation);
-        } catch (Exception e) {
-            System.err.println("Database error during check-out: " + e.getMessage());
-        }
-
-        if (dbSuccess) {
-            // Update room status
-            Room room = reservation.getRoom();
-            room.setStatus(RoomStatus.AVAILABLE);
-            try {
-                roomDAO.updateRoom(room);
-            } catch (Exception e) {
-                System.err.println("Error updating room status: " + e.getMessage());
-            }
-
-            AlertUtil.showSuccess("Success", "Checked Out", "Guest has been checked out successfully.");
-            refreshReservations();
-        } else {
-            // Demo mode fallback
-            reservationsTable.refresh();
-            AlertUtil.showSuccess("Success", "Checked Out (Demo Mode)",
-                    "Guest status updated in table. Note: Changes won't persist without database.");
-        }
+        Reservation target = copyOf(reservation);
+        runWorkflowAction(() -> workflowService.checkOut(target), reservation, ReservationStatus.CHECKED_OUT,
+                "Check Out", "Checked Out", "Guest has been checked out successfully.");
     }
 
     @FXML
@@ -581,34 +701,44 @@ public class ReservationController {
 
         if (AlertUtil.showConfirmation("Confirm Cancellation", "Cancel Reservation",
                 "Are you sure you want to cancel this reservation?")) {
-            reservation.setStatus(ReservationStatus.CANCELLED);
-            boolean dbSuccess = false;
-            try {
-                dbSuccess = reservationDAO.updateReservation(reservation);
-            } catch (Exception e) {
-                System.err.println("Database error during cancellation: " + e.getMessage());
-            }
+            Reservation target = copyOf(reservation);
+            runWorkflowAction(() -> workflowService.cancel(target), reservation, ReservationStatus.CANCELLED,
+                    "Cancel", "Reservation Cancelled", "Reservation has been cancelled.");
+        }
+    }
 
-            if (dbSuccess) {
-                // Update room status if it was occupied
-                if (reservation.getRoom().getStatus() == RoomStatus.OCCUPIED) {
-                    Room room = reservation.getRoom();
-                    room.setStatus(RoomStatus.AVAILABLE);
-                    try {
-                        roomDAO.updateRoom(room);
-                    } catch (Exception e) {
-                        System.err.println("Error updating room status: " + e.getMessage());
-                    }
-                }
+    private void runWorkflowAction(Callable<WorkflowResult> call, Reservation reservation, ReservationStatus newStatus,
+            String action, String successHeader, String successMessage) {
+        runWorkflow(tableActions, call,
+                result -> showWorkflowResult(result, action, successHeader, successMessage),
+                () -> {
+                    // Demo mode fallback
+                    reservation.setStatus(newStatus);
+                    reservationFilter.refresh();
+                    reservationsTable.refresh();
+                    AlertUtil.showSuccess("Success", successHeader + " (Demo Mode)",
+                            "Reservation status updated in table. Note: Changes won't persist without database.");
+                });
+    }
 
-                AlertUtil.showSuccess("Success", "Reservation Cancelled", "Reservation has been cancelled.");
+    private void showWorkflowResult(WorkflowResult result, String action, String successHeader, String successMessage) {
+        switch (result.getStatus()) {
+            case COMPLETED:
+                AlertUtil.showSuccess("Success", successHeader, successMessage);
                 refreshReservations();
-            } else {
-                // Demo mode fallback
-                reservationsTable.refresh();
-                AlertUtil.showSuccess("Success", "Reservation Cancelled (Demo Mode)",
-                        "Reservation status updated in table. Note: Changes won't persist without database.");
-            }
+                break;
+            case REJECTED:
+                AlertUtil.showWarning("Invalid Status", "Cannot " + action, result.getMessage());
+                break;
+            case CONFLICT:
+                refreshReservations();
+                AlertUtil.showWarning("Reservation Changed", "Cannot " + action, result.getMessage());
+                break;
+            default:
+                // Rolled back, so the reservation keeps its status
+                AlertUtil.showError("Database Error", "Cannot " + action, result.getMessage());
+                refreshReservations();
+                break;
         }
     }
 
@@ -651,8 +781,10 @@ public class ReservationController {
     }
 
     private void clearForm() {
-        guestComboBox.setValue(null);
+        guestPicker.clear();
         roomComboBox.setValue(null);
+        roomTypeFilter.setValue(null);
+        guestCountSpinner.getValueFactory().setValue(1);
         checkInDatePicker.setValue(LocalDate.now());
         checkOutDatePicker.setValue(LocalDate.now().plusDays(1));
         statusComboBox.setValue(ReservationStatus.PENDING);
@@ -696,6 +828,9 @@ public class ReservationController {
         }
 
         // Check for conflicts
+        if (conflictTask != null && (conflictTask.getState() == Worker.State.READY || conflictTask.isRunning())) {
+            return "Still checking room availability, please try again.";
+        }
         if (!conflictWarningLabel.getText().isEmpty()) {
             return "The selected room is already booked for these dates.";
         }
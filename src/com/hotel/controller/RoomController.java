@@ -1,17 +1,24 @@
 package com.hotel.controller;
 
+import com.hotel.dao.DaoRegistry;
 import com.hotel.dao.RoomDAO;
 import com.hotel.model.Room;
 import com.hotel.model.RoomStatus;
 import com.hotel.model.RoomType;
+import com.hotel.service.BackgroundExecutor;
+import com.hotel.service.CsvImportService;
 import com.hotel.util.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
-public class RoomController {
+import java.io.File;
+
+public class RoomController implements RefreshableView {
     @FXML
     private TableView<Room> roomsTable;
     @FXML
@@ -43,6 +50,9 @@ public class RoomController {
     @FXML
     private Label maintenanceRoomsLabel;
 
+    @FXML
+    private HBox tableActions;
+
     @FXML
     private VBox roomFormPanel;
     @FXML
@@ -58,9 +68,12 @@ public class RoomController {
     @FXML
     private TextArea descriptionArea;
 
-    private RoomDAO roomDAO = new RoomDAO();
+    private RoomDAO roomDAO = DaoRegistry.getInstance().getRoomDAO();
     private Room selectedRoom = null;
-    private ObservableList<Room> allRooms;
+    private final ObservableList<Room> allRooms = FXCollections.observableArrayList();
+    private final SearchFilter<Room> roomFilter = new SearchFilter<>(allRooms,
+            room -> room.getRoomNumber() + "\n" + room.getType().getDisplayName() + "\n" + room.getDescription());
+    private Task<?> loadTask;
 
     @FXML
     public void initialize() {
@@ -118,6 +131,9 @@ public class RoomController {
         typeFilter.setItems(FXCollections.observableArrayList(RoomType.values()));
         statusFilter.setItems(FXCollections.observableArrayList(RoomStatus.values()));
 
+        roomFilter.bind(roomsTable);
+        searchField.textProperty().addListener((obs, oldText, newText) -> roomFilter.setSearchText(newText));
+
         try {
             refreshRooms();
             updateStatistics();
@@ -127,18 +143,28 @@ public class RoomController {
         }
     }
 
+    @Override
+    public void onViewShown() {
+        refreshRooms();
+    }
+
     @FXML
     private void refreshRooms() {
-        allRooms = roomDAO.getAllRooms();
-        roomsTable.setItems(allRooms);
-        updateStatistics();
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
+        roomsTable.setPlaceholder(new Label("Loading rooms..."));
+        loadTask = BackgroundExecutor.getInstance().submit(
+                roomDAO::getAllRooms,
+                rooms -> {
+                    allRooms.setAll(rooms);
+                    roomsTable.setPlaceholder(new Label("No rooms found"));
+                    updateStatistics();
+                },
+                error -> roomsTable.setPlaceholder(new Label("Could not load rooms")));
     }
 
     private void updateStatistics() {
-        if (allRooms == null) {
-            allRooms = roomDAO.getAllRooms();
-        }
-
         totalRoomsLabel.setText(String.valueOf(allRooms.size()));
 
         int available = 0, occupied = 0, maintenance = 0;
@@ -163,21 +189,7 @@ public class RoomController {
 
     @FXML
     private void searchRooms() {
-        String term = searchField.getText().toLowerCase().trim();
-        if (term.isEmpty()) {
-            roomsTable.setItems(allRooms);
-            return;
-        }
-
-        ObservableList<Room> filteredRooms = FXCollections.observableArrayList();
-        for (Room room : allRooms) {
-            if (room.getRoomNumber().toLowerCase().contains(term) ||
-                    room.getType().getDisplayName().toLowerCase().contains(term) ||
-                    room.getDescription().toLowerCase().contains(term)) {
-                filteredRooms.add(room);
-            }
-        }
-        roomsTable.setItems(filteredRooms);
+        roomFilter.applySearchText(searchField.getText());
     }
 
     @FXML
@@ -185,26 +197,32 @@ public class RoomController {
         searchField.clear();
         typeFilter.setValue(null);
         statusFilter.setValue(null);
+        roomFilter.clear();
         refreshRooms();
     }
 
     @FXML
     private void applyFilters() {
-        ObservableList<Room> filteredRooms = FXCollections.observableArrayList(allRooms);
-
-        // Filter by type
         RoomType selectedType = typeFilter.getValue();
-        if (selectedType != null) {
-            filteredRooms.removeIf(room -> room.getType() != selectedType);
-        }
+        roomFilter.setCriterion("type", selectedType == null ? null : room -> room.getType() == selectedType);
 
-        // Filter by status
         RoomStatus selectedStatus = statusFilter.getValue();
-        if (selectedStatus != null) {
-            filteredRooms.removeIf(room -> room.getStatus() != selectedStatus);
-        }
+        roomFilter.setCriterion("status", selectedStatus == null ? null : room -> room.getStatus() == selectedStatus);
+    }
 
-        roomsTable.setItems(filteredRooms);
+    // Runs detached so navigating away does not cut a long import short
+    @FXML
+    private void importRooms() {
+        File file = ImportUtil.chooseCsvFile(roomsTable, "Import Rooms");
+        if (file == null) {
+            return;
+        }
+        BackgroundExecutor.getInstance().submitDetached(() -> CsvImportService.getInstance().importRooms(file),
+                result -> {
+                    ImportUtil.showResult("rooms", result);
+                    refreshRooms();
+                },
+                error -> AlertUtil.showError("Import Failed", "Could not import rooms", String.valueOf(error.getMessage())));
     }
 
     @FXML
@@ -263,13 +281,17 @@ public class RoomController {
                     descriptionArea.getText().trim(),
                     maxOccupancy);
 
-            if (roomDAO.addRoom(room)) {
-                AlertUtil.showSuccess("Success", "Room Added", "Room has been added successfully.");
-                cancelRoomForm();
-                refreshRooms();
-            } else {
-                AlertUtil.showDatabaseError("add room");
-            }
+            BackgroundExecutor.getInstance().submitWrite(roomFormPanel, () -> roomDAO.addRoom(room),
+                    added -> {
+                        if (added) {
+                            AlertUtil.showSuccess("Success", "Room Added", "Room has been added successfully.");
+                            cancelRoomForm();
+                            refreshRooms();
+                        } else {
+                            AlertUtil.showDatabaseError("add room");
+                        }
+                    },
+                    failure -> AlertUtil.showDatabaseError("add room"));
         } else {
             // Update existing room
             selectedRoom.setRoomNumber(roomNumber);
@@ -279,13 +301,18 @@ public class RoomController {
             selectedRoom.setStatus(statusComboBox.getValue());
             selectedRoom.setDescription(descriptionArea.getText().trim());
 
-            if (roomDAO.updateRoom(selectedRoom)) {
-                AlertUtil.showSuccess("Success", "Room Updated", "Room has been updated successfully.");
-                cancelRoomForm();
-                refreshRooms();
-            } else {
-                AlertUtil.showDatabaseError("update room");
-            }
+            Room room = selectedRoom;
+            BackgroundExecutor.getInstance().submitWrite(roomFormPanel, () -> roomDAO.updateRoom(room),
+                    updated -> {
+                        if (updated) {
+                            AlertUtil.showSuccess("Success", "Room Updated", "Room has been updated successfully.");
+                            cancelRoomForm();
+                            refreshRooms();
+                        } else {
+                            AlertUtil.showDatabaseError("update room");
+                        }
+                    },
+                    failure -> AlertUtil.showDatabaseError("update room"));
         }
     }
 
@@ -299,12 +326,16 @@ public class RoomController {
 
         if (AlertUtil.showConfirmation("Confirm Delete", "Delete Room",
                 "Are you sure you want to delete Room " + room.getRoomNumber() + "?")) {
-            if (roomDAO.deleteRoom(room.getRoomNumber())) {
-                AlertUtil.showSuccess("Success", "Room Deleted", "Room has been deleted successfully.");
-                refreshRooms();
-            } else {
-                AlertUtil.showDatabaseError("delete room");
-            }
+            BackgroundExecutor.getInstance().submitWrite(tableActions, () -> roomDAO.deleteRoom(room.getRoomNumber()),
+                    deleted -> {
+                        if (deleted) {
+                            AlertUtil.showSuccess("Success", "Room Deleted", "Room has been deleted successfully.");
+                            refreshRooms();
+                        } else {
+                            AlertUtil.showDatabaseError("delete room");
+                        }
+                    },
+                    failure -> AlertUtil.showDatabaseError("delete room"));
         }
     }
 
@@ -324,13 +355,17 @@ public class RoomController {
 
         dialog.showAndWait().ifPresent(newStatus -> {
             room.setStatus(newStatus);
-            if (roomDAO.updateRoom(room)) {
-                AlertUtil.showSuccess("Success", "Status Updated",
-                        "Room status has been changed to " + newStatus.getDisplayName() + ".");
-                refreshRooms();
-            } else {
-                AlertUtil.showDatabaseError("update room status");
-            }
+            BackgroundExecutor.getInstance().submitWrite(tableActions, () -> roomDAO.updateRoom(room),
+                    updated -> {
+                        if (updated) {
+                            AlertUtil.showSuccess("Success", "Status Updated",
+                                    "Room status has been changed to " + newStatus.getDisplayName() + ".");
+                            refreshRooms();
+                        } else {
+                            AlertUtil.showDatabaseError("update room status");
+                        }
+                    },
+                    failure -> AlertUtil.showDatabaseError("update room status"));
         });
     }
 
@@ -1,16 +1,24 @@
 package com.hotel.controller;
 
+import com.hotel.dao.DaoRegistry;
 import com.hotel.dao.ServiceDAO;
 import com.hotel.model.Service;
 import com.hotel.model.ServiceCategory;
+import com.hotel.service.BackgroundExecutor;
+import com.hotel.service.CsvImportService;
 import com.hotel.util.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
-public class ServiceController {
+import java.io.File;
+import java.util.concurrent.Callable;
+
+public class ServiceController implements RefreshableView {
     @FXML
     private TableView<Service> servicesTable;
     @FXML
@@ -33,6 +41,9 @@ public class ServiceController {
     @FXML
     private CheckBox activeOnlyCheckbox;
 
+    @FXML
+    private HBox tableActions;
+
     @FXML
     private VBox serviceFormPanel;
     @FXML
@@ -46,9 +57,13 @@ public class ServiceController {
     @FXML
     private CheckBox isActiveCheckbox;
 
-    private ServiceDAO serviceDAO = new ServiceDAO();
+    private ServiceDAO serviceDAO = DaoRegistry.getInstance().getServiceDAO();
     private Service selectedService = null;
-    private ObservableList<Service> allServices;
+    private final ObservableList<Service> allServices = FXCollections.observableArrayList();
+    private final SearchFilter<Service> serviceFilter = new SearchFilter<>(allServices,
+            service -> service.getName() + "\n" + service.getDescription() + "\n" +
+                    service.getCategory().getDisplayName());
+    private Task<?> loadTask;
 
     @FXML
     public void initialize() {
@@ -102,6 +117,9 @@ public class ServiceController {
         ObservableList<ServiceCategory> filterOptions = FXCollections.observableArrayList(ServiceCategory.values());
         categoryFilter.setItems(filterOptions);
 
+        serviceFilter.bind(servicesTable);
+        searchField.textProperty().addListener((obs, oldText, newText) -> serviceFilter.setSearchText(newText));
+
         try {
             refreshServices();
         } catch (Exception e) {
@@ -110,52 +128,64 @@ public class ServiceController {
         }
     }
 
+    @Override
+    public void onViewShown() {
+        refreshServices();
+    }
+
     @FXML
     private void refreshServices() {
-        if (activeOnlyCheckbox.isSelected()) {
-            allServices = serviceDAO.getActiveServices();
-        } else {
-            allServices = serviceDAO.getAllServices();
+        boolean activeOnly = activeOnlyCheckbox.isSelected();
+        loadServices(() -> activeOnly ? serviceDAO.getActiveServices() : serviceDAO.getAllServices());
+    }
+
+    // Only the latest load may fill the table, so a slow earlier query cannot overwrite it
+    private void loadServices(Callable<ObservableList<Service>> query) {
+        if (loadTask != null) {
+            loadTask.cancel();
         }
-        servicesTable.setItems(allServices);
+        servicesTable.setPlaceholder(new Label("Loading services..."));
+        loadTask = BackgroundExecutor.getInstance().submit(query,
+                services -> {
+                    allServices.setAll(services);
+                    servicesTable.setPlaceholder(new Label("No services found"));
+                },
+                error -> servicesTable.setPlaceholder(new Label("Could not load services")));
     }
 
     @FXML
     private void searchServices() {
-        String term = searchField.getText().toLowerCase().trim();
-        if (term.isEmpty()) {
-            servicesTable.setItems(allServices);
-            return;
-        }
-
-        ObservableList<Service> filteredServices = FXCollections.observableArrayList();
-        for (Service service : allServices) {
-            if (service.getName().toLowerCase().contains(term) ||
-                    service.getDescription().toLowerCase().contains(term) ||
-                    service.getCategory().getDisplayName().toLowerCase().contains(term)) {
-                filteredServices.add(service);
-            }
-        }
-        servicesTable.setItems(filteredServices);
+        serviceFilter.applySearchText(searchField.getText());
     }
 
     @FXML
     private void clearSearch() {
         searchField.clear();
         categoryFilter.setValue(null);
+        serviceFilter.clear();
         refreshServices();
     }
 
     @FXML
     private void filterByCategory() {
         ServiceCategory selectedCategory = categoryFilter.getValue();
-        if (selectedCategory == null) {
-            servicesTable.setItems(allServices);
+        serviceFilter.setCriterion("category",
+                selectedCategory == null ? null : service -> service.getCategory() == selectedCategory);
+    }
+
+    // Runs detached so navigating away does not cut a long import short
+    @FXML
+    private void importServices() {
+        File file = ImportUtil.chooseCsvFile(servicesTable, "Import Services");
+        if (file == null) {
             return;
         }
-
-        ObservableList<Service> filteredServices = serviceDAO.getServicesByCategory(selectedCategory);
-        servicesTable.setItems(filteredServices);
+        BackgroundExecutor.getInstance().submitDetached(() -> CsvImportService.getInstance().importServices(file),
+                result -> {
+                    ImportUtil.showResult("services", result);
+                    refreshServices();
+                },
+                error -> AlertUtil.showError("Import Failed", "Could not import services", String.valueOf(error.getMessage())));
     }
 
     @FXML
@@ -204,13 +234,17 @@ public class ServiceController {
                     categoryComboBox.getValue(),
                     isActiveCheckbox.isSelected());
 
-            if (serviceDAO.addService(service)) {
-                AlertUtil.showSuccess("Success", "Service Added", "Service has been added successfully.");
-                cancelServiceForm();
-                refreshServices();
-            } else {
-                AlertUtil.showDatabaseError("add service");
-            }
+            BackgroundExecutor.getInstance().submitWrite(serviceFormPanel, () -> serviceDAO.addService(service),
+                    added -> {
+                        if (added) {
+                            AlertUtil.showSuccess("Success", "Service Added", "Service has been added successfully.");
+                            cancelServiceForm();
+                            refreshServices();
+                        } else {
+                            AlertUtil.showDatabaseError("add service");
+                        }
+                    },
+                    failure -> AlertUtil.showDatabaseError("add service"));
         } else {
             // Update existing service
             selectedService.setName(nameField.getText().trim());
@@ -219,13 +253,18 @@ public class ServiceController {
             selectedService.setPrice(price);
             selectedService.setActive(isActiveCheckbox.isSelected());
 
-            if (serviceDAO.updateService(selectedService)) {
-                AlertUtil.showSuccess("Success", "Service Updated", "Service has been updated successfully.");
-                cancelServiceForm();
-                refreshServices();
-            } else {
-                AlertUtil.showDatabaseError("update service");
-            }
+            Service service = selectedService;
+            BackgroundExecutor.getInstance().submitWrite(serviceFormPanel, () -> serviceDAO.updateService(service),
+                    updated -> {
+                        if (updated) {
+                            AlertUtil.showSuccess("Success", "Service Updated", "Service has been updated successfully.");
+                            cancelServiceForm();
+                            refreshServices();
+                        } else {
+                            AlertUtil.showDatabaseError("update service");
+                        }
+                    },
+                    failure -> AlertUtil.showDatabaseError("update service"));
         }
     }
 
@@ -239,12 +278,16 @@ public class ServiceController {
 
         if (AlertUtil.showConfirmation("Confirm Delete", "Delete Service",
                 "Are you sure you want to delete '" + service.getName() + "'?")) {
-            if (serviceDAO.deleteService(service.getId())) {
-                AlertUtil.showSuccess("Success", "Service Deleted", "Service has been deleted successfully.");
-                refreshServices();
-            } else {
-                AlertUtil.showDatabaseError("delete service");
-            }
+            BackgroundExecutor.getInstance().submitWrite(tableActions, () -> serviceDAO.deleteService(service.getId()),
+                    deleted -> {
+                        if (deleted) {
+                            AlertUtil.showSuccess("Success", "Service Deleted", "Service has been deleted successfully.");
+                            refreshServices();
+                        } else {
+                            AlertUtil.showDatabaseError("delete service");
+                        }
+                    },
+                    failure -> AlertUtil.showDatabaseError("delete service"));
         }
     }
 
@@ -258,13 +301,17 @@ public class ServiceController {
         }
 
         service.setActive(!service.isActive());
-        if (serviceDAO.updateService(service)) {
-            String status = service.isActive() ? "activated" : "deactivated";
-            AlertUtil.showSuccess("Success", "Status Updated", "Service has been " + status + ".");
-            refreshServices();
-        } else {
-            AlertUtil.showDatabaseError("update service status");
-        }
+        String status = service.isActive() ? "activated" : "deactivated";
+        BackgroundExecutor.getInstance().submitWrite(tableActions, () -> serviceDAO.updateService(service),
+                updated -> {
+                    if (updated) {
+                        AlertUtil.showSuccess("Success", "Status Updated", "Service has been " + status + ".");
+                        refreshServices();
+                    } else {
+                        AlertUtil.showDatabaseError("update service status");
+                    }
+                },
+                failure -> AlertUtil.showDatabaseError("update service status"));
     }
 
     @FXML
@@ -0,0 +1,98 @@
+package com.hotel.dao;
+
+import com.hotel.config.DatabaseConfig;
+import com.hotel.service.DatabaseManager;
+
+import java.sql.*;
+import java.util.List;
+
+// Writes many rows with one prepared statement. Rows are sent as JDBC batches of
+// DatabaseConfig.getBatchSize() (rewriteBatchedStatements in the URL lets the driver turn each
+// batch into multi-row statements) and committed once, so a failure leaves the table unchanged.
+// Errors are thrown; the DAOs' addAll/updateAll turn them into their usual boolean result.
+final class BatchWriter {
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement pstmt, T row) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface KeyMapper<T> {
+        void setKey(T row, int key);
+    }
+
+    private BatchWriter() {
+    }
+
+    // Generated keys are mapped back onto the rows in order, once the commit succeeded
+    static <T> void insertAll(DatabaseManager dbManager, String sql, List<T> rows, Binder<T> binder,
+            KeyMapper<T> keyMapper) throws SQLException {
+        writeAll(dbManager, sql, rows, binder, keyMapper);
+    }
+
+    // Every row must match; a missing row rolls back the whole batch
+    static <T> void updateAll(DatabaseManager dbManager, String sql, List<T> rows, Binder<T> binder)
+            throws SQLException {
+        writeAll(dbManager, sql, rows, binder, null);
+    }
+
+    private static <T> void writeAll(DatabaseManager dbManager, String sql, List<T> rows, Binder<T> binder,
+            KeyMapper<T> keyMapper) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        int[] keys = new int[rows.size()];
+        int batchSize = DatabaseConfig.getBatchSize();
+        try (Connection conn = dbManager.getConnection()) {
+            if (conn == null) {
+                // SQLState class 08: connection exception
+                throw new SQLException("Database unavailable", "08001");
+            }
+            // The pool restores auto-commit when the connection is handed back
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = keyMapper != null
+                    ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : conn.prepareStatement(sql)) {
+
+                for (int start = 0; start < rows.size(); start += batchSize) {
+                    int end = Math.min(rows.size(), start + batchSize);
+                    for (int i = start; i < end; i++) {
+                        binder.bind(pstmt, rows.get(i));
+                        pstmt.addBatch();
+                    }
+                    checkUpdateCounts(pstmt.executeBatch(), sql);
+
+                    if (keyMapper != null) {
+                        ResultSet rs = pstmt.getGeneratedKeys();
+                        for (int i = start; i < end; i++) {
+                            if (!rs.next()) {
+                                throw new SQLException("No generated key for row " + i + " of " + sql);
+                            }
+                            keys[i] = rs.getInt(1);
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        if (keyMapper != null) {
+            for (int i = 0; i < rows.size(); i++) {
+                keyMapper.setKey(rows.get(i), keys[i]);
+            }
+        }
+    }
+
+    // Rewritten multi-row inserts report SUCCESS_NO_INFO instead of a count
+    private static void checkUpdateCounts(int[] counts, String sql) throws SQLException {
+        for (int count : counts) {
+            if (count == 0 || count == Statement.EXECUTE_FAILED) {
+                throw new SQLException("Batch row matched nothing: " + sql);
+            }
+        }
+    }
+}
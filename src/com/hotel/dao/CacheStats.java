@@ -0,0 +1,53 @@
+package com.hotel.dao;
+
+// Point-in-time counters for one of the DAO read caches
+public class CacheStats {
+    private final String name;
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public CacheStats(String name, int size, long hits, long misses) {
+        this(name, size, hits, misses, 0);
+    }
+
+    public CacheStats(String name, int size, long hits, long misses, long evictions) {
+        this.name = name;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[size=%d, hits=%d, misses=%d, evictions=%d, hitRatio=%.1f%%]",
+                name, size, hits, misses, evictions, getHitRatio() * 100);
+    }
+}
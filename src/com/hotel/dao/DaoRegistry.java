@@ -0,0 +1,76 @@
+package com.hotel.dao;
+
+import com.hotel.service.DatabaseManager;
+import com.hotel.service.GuestSearchIndex;
+import com.hotel.service.RoomAvailabilityIndex;
+
+// Owns the single instance of every DAO and wires them to the shared connection pool and
+// in-memory indexes. Controllers and DAOs get collaborators from here instead of building their own.
+public class DaoRegistry {
+    private static DaoRegistry instance;
+
+    private final DatabaseManager dbManager;
+    private final GuestDAO guestDAO;
+    private final RoomDAO roomDAO;
+    private final ReservationDAO reservationDAO;
+    private final PaymentDAO paymentDAO;
+    private final ServiceDAO serviceDAO;
+    private final ReservationServiceDAO reservationServiceDAO;
+    private final StatisticsDAO statisticsDAO;
+    private final UserDAO userDAO;
+
+    private DaoRegistry() {
+        dbManager = DatabaseManager.getInstance();
+        guestDAO = new GuestDAO(dbManager, GuestSearchIndex.getInstance());
+        roomDAO = new RoomDAO(dbManager);
+        reservationDAO = new ReservationDAO(dbManager, RoomAvailabilityIndex.getInstance());
+        paymentDAO = new PaymentDAO(dbManager);
+        serviceDAO = new ServiceDAO(dbManager);
+        reservationServiceDAO = new ReservationServiceDAO(dbManager, reservationDAO, serviceDAO);
+        statisticsDAO = new StatisticsDAO(dbManager);
+        userDAO = new UserDAO(dbManager);
+    }
+
+    public static synchronized DaoRegistry getInstance() {
+        if (instance == null) {
+            instance = new DaoRegistry();
+        }
+        return instance;
+    }
+
+    public DatabaseManager getDatabaseManager() {
+        return dbManager;
+    }
+
+    public GuestDAO getGuestDAO() {
+        return guestDAO;
+    }
+
+    public RoomDAO getRoomDAO() {
+        return roomDAO;
+    }
+
+    public ReservationDAO getReservationDAO() {
+        return reservationDAO;
+    }
+
+    public PaymentDAO getPaymentDAO() {
+        return paymentDAO;
+    }
+
+    public ServiceDAO getServiceDAO() {
+        return serviceDAO;
+    }
+
+    public ReservationServiceDAO getReservationServiceDAO() {
+        return reservationServiceDAO;
+    }
+
+    public StatisticsDAO getStatisticsDAO() {
+        return statisticsDAO;
+    }
+
+    public UserDAO getUserDAO() {
+        return userDAO;
+    }
+}
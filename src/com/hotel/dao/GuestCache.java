@@ -0,0 +1,87 @@
+package com.hotel.dao;
+
+import com.hotel.model.Guest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded least-recently-used cache of guests keyed by id, with a secondary index on id_number for
+// check-in lookups. Only guests that were actually looked up are held, so memory stays flat no
+// matter how many historical guests the table has.
+class GuestCache {
+    private final int maxSize;
+    private final LinkedHashMap<Integer, Guest> byId;
+    private final Map<String, Integer> idsByIdNumber = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    GuestCache(int maxSize) {
+        this.maxSize = maxSize;
+        // Access order turns the map into an LRU list: get() moves an entry to the tail
+        this.byId = new LinkedHashMap<Integer, Guest>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Guest> eldest) {
+                if (size() > GuestCache.this.maxSize) {
+                    idsByIdNumber.remove(eldest.getValue().getIdNumber(), eldest.getKey());
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    synchronized Guest get(int id) {
+        Guest guest = byId.get(id);
+        if (guest == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return copyOf(guest);
+    }
+
+    synchronized Guest getByIdNumber(String idNumber) {
+        Integer id = idsByIdNumber.get(idNumber);
+        Guest guest = id != null ? byId.get(id) : null;
+        if (guest == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return copyOf(guest);
+    }
+
+    synchronized void put(Guest guest) {
+        remove(guest.getId());
+        byId.put(guest.getId(), copyOf(guest));
+        if (guest.getIdNumber() != null) {
+            idsByIdNumber.put(guest.getIdNumber(), guest.getId());
+        }
+    }
+
+    synchronized void remove(int id) {
+        Guest old = byId.remove(id);
+        if (old != null) {
+            idsByIdNumber.remove(old.getIdNumber(), old.getId());
+        }
+    }
+
+    synchronized void clear() {
+        byId.clear();
+        idsByIdNumber.clear();
+    }
+
+    synchronized CacheStats getStats() {
+        return new CacheStats("guests", byId.size(), hits, misses, evictions);
+    }
+
+    // Controllers edit Guest objects in place, so the cache never shares its own instances
+    private static Guest copyOf(Guest guest) {
+        return new Guest(guest.getId(), guest.getFirstName(), guest.getLastName(), guest.getEmail(),
+                guest.getPhone(), guest.getIdNumber(), guest.getAddress());
+    }
+}
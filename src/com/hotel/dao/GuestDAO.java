@@ -1,17 +1,52 @@
 package com.hotel.dao;
 
+import com.hotel.config.DatabaseConfig;
 import com.hotel.model.Guest;
+import com.hotel.model.GuestSummary;
 import com.hotel.service.DatabaseManager;
+import com.hotel.service.GuestSearchIndex;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.sql.*;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+// Single-guest lookups go through a bounded GuestCache; writes refresh or drop the cached entry
+// once the database has accepted them. Searches use GuestSearchIndex or the FULLTEXT index,
+// depending on DatabaseConfig.getGuestSearchMode().
 public class GuestDAO {
+    private static final String SEARCH_MODE_FULLTEXT = "fulltext";
+    private static final String FULLTEXT_COLUMNS = "first_name, last_name, email, phone, id_number";
+    private static final String INSERT_GUEST = "INSERT INTO guests (first_name, last_name, email, phone, " +
+            "id_number, address) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_GUEST = "UPDATE guests SET first_name=?, last_name=?, email=?, phone=?, " +
+            "id_number=?, address=? WHERE id=?";
+
     private final DatabaseManager dbManager;
+    private final GuestSearchIndex searchIndex;
+    private final GuestCache cache = new GuestCache(DatabaseConfig.getGuestCacheSize());
+
+    public GuestDAO(DatabaseManager dbManager, GuestSearchIndex searchIndex) {
+        this.dbManager = dbManager;
+        this.searchIndex = searchIndex;
+    }
+
+    public static boolean usesFullTextSearch() {
+        return SEARCH_MODE_FULLTEXT.equalsIgnoreCase(DatabaseConfig.getGuestSearchMode());
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
 
-    public GuestDAO() {
-        this.dbManager = DatabaseManager.getInstance();
+    public void invalidateCache() {
+        cache.clear();
     }
 
     public ObservableList<Guest> getAllGuests() {
@@ -40,18 +75,10 @@ public class GuestDAO {
     }
 
     public boolean addGuest(Guest guest) {
-        String query = "INSERT INTO guests (first_name, last_name, email, phone, id_number, address) " +
-                "VALUES (?, ?, ?, ?, ?, ?)";
-
         try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                PreparedStatement pstmt = conn.prepareStatement(INSERT_GUEST, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setString(1, guest.getFirstName());
-            pstmt.setString(2, guest.getLastName());
-            pstmt.setString(3, guest.getEmail());
-            pstmt.setString(4, guest.getPhone());
-            pstmt.setString(5, guest.getIdNumber());
-            pstmt.setString(6, guest.getAddress());
+            bindGuest(pstmt, guest);
 
             int result = pstmt.executeUpdate();
 
@@ -60,6 +87,8 @@ public class GuestDAO {
                 if (rs.next()) {
                     guest.setId(rs.getInt(1));
                 }
+                cache.put(guest);
+                searchIndex.onGuestSaved(guest);
                 return true;
             }
         } catch (SQLException e) {
@@ -69,27 +98,68 @@ public class GuestDAO {
     }
 
     public boolean updateGuest(Guest guest) {
-        String query = "UPDATE guests SET first_name=?, last_name=?, email=?, phone=?, " +
-                "id_number=?, address=? WHERE id=?";
-
         try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+                PreparedStatement pstmt = conn.prepareStatement(UPDATE_GUEST)) {
 
-            pstmt.setString(1, guest.getFirstName());
-            pstmt.setString(2, guest.getLastName());
-            pstmt.setString(3, guest.getEmail());
-            pstmt.setString(4, guest.getPhone());
-            pstmt.setString(5, guest.getIdNumber());
-            pstmt.setString(6, guest.getAddress());
+            bindGuest(pstmt, guest);
             pstmt.setInt(7, guest.getId());
 
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                cache.put(guest);
+                searchIndex.onGuestSaved(guest);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return false;
     }
 
+    // Batched insert of many guests in one transaction; generated ids are set on the guests
+    public boolean addAll(List<Guest> guests) {
+        try {
+            insertAll(guests);
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Like addAll, but reports why the batch failed
+    public void insertAll(List<Guest> guests) throws SQLException {
+        BatchWriter.insertAll(dbManager, INSERT_GUEST, guests, GuestDAO::bindGuest, Guest::setId);
+        guests.forEach(this::onGuestWritten);
+    }
+
+    public boolean updateAll(List<Guest> guests) {
+        try {
+            BatchWriter.updateAll(dbManager, UPDATE_GUEST, guests, (pstmt, guest) -> {
+                bindGuest(pstmt, guest);
+                pstmt.setInt(7, guest.getId());
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+        guests.forEach(this::onGuestWritten);
+        return true;
+    }
+
+    private void onGuestWritten(Guest guest) {
+        cache.put(guest);
+        searchIndex.onGuestSaved(guest);
+    }
+
+    private static void bindGuest(PreparedStatement pstmt, Guest guest) throws SQLException {
+        pstmt.setString(1, guest.getFirstName());
+        pstmt.setString(2, guest.getLastName());
+        pstmt.setString(3, guest.getEmail());
+        pstmt.setString(4, guest.getPhone());
+        pstmt.setString(5, guest.getIdNumber());
+        pstmt.setString(6, guest.getAddress());
+    }
+
     public boolean deleteGuest(int guestId) {
         String query = "DELETE FROM guests WHERE id=?";
 
@@ -97,7 +167,11 @@ public class GuestDAO {
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
 
             pstmt.setInt(1, guestId);
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                cache.remove(guestId);
+                searchIndex.onGuestDeleted(guestId);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -105,16 +179,59 @@ public class GuestDAO {
     }
 
     public Guest getGuestById(int id) {
-        String query = "SELECT * FROM guests WHERE id=?";
+        Guest cached = cache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        return findGuest("SELECT * FROM guests WHERE id=?", id);
+    }
+
+    // Check-in desks look guests up by the document they present
+    public Guest getGuestByIdNumber(String idNumber) {
+        Guest cached = cache.getByIdNumber(idNumber);
+        if (cached != null) {
+            return cached;
+        }
+        return findGuest("SELECT * FROM guests WHERE id_number=?", idNumber);
+    }
+
+    // Which of the given id numbers are already registered, e.g. to skip duplicates before an import
+    public Set<String> findExistingIdNumbers(Collection<String> idNumbers) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        if (idNumbers.isEmpty()) {
+            return existing;
+        }
 
+        try (Connection conn = dbManager.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database unavailable", "08001");
+            }
+            for (List<String> chunk : InClause.chunks(idNumbers)) {
+                String query = "SELECT id_number FROM guests WHERE id_number IN (" +
+                        InClause.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setString(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        existing.add(rs.getString("id_number"));
+                    }
+                }
+            }
+        }
+        return existing;
+    }
+
+    private Guest findGuest(String query, Object key) {
         try (Connection conn = dbManager.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-            pstmt.setInt(1, id);
+            pstmt.setObject(1, key);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                return new Guest(
+                Guest guest = new Guest(
                         rs.getInt("id"),
                         rs.getString("first_name"),
                         rs.getString("last_name"),
@@ -122,6 +239,8 @@ public class GuestDAO {
                         rs.getString("phone"),
                         rs.getString("id_number"),
                         rs.getString("address"));
+                cache.put(guest);
+                return guest;
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -129,10 +248,125 @@ public class GuestDAO {
         return null;
     }
 
+    // Picker suggestions: the first word is a prefix of the first name, last name or id number; with
+    // more words, one name starts with the first word and the other with the rest ("john sm").
+    // Only the columns a summary needs are read, and the name indexes serve the prefix matches.
+    public ObservableList<GuestSummary> findGuestSummaries(String prefix, int limit) {
+        ObservableList<GuestSummary> summaries = FXCollections.observableArrayList();
+        String[] words = prefix == null ? new String[0] : prefix.trim().split("\\s+");
+        if (words.length == 0 || words[0].isEmpty()) {
+            return summaries;
+        }
+
+        String first = SqlCriteria.escapeLike(words[0]) + "%";
+        String query;
+        String[] params;
+        if (words.length == 1) {
+            query = "SELECT id, first_name, last_name, id_number FROM guests " +
+                    "WHERE first_name LIKE ? OR last_name LIKE ? OR id_number LIKE ? " +
+                    "ORDER BY last_name, first_name, id LIMIT ?";
+            params = new String[] { first, first, first };
+        } else {
+            String rest = SqlCriteria.escapeLike(String.join(" ", Arrays.copyOfRange(words, 1, words.length))) + "%";
+            query = "SELECT id, first_name, last_name, id_number FROM guests " +
+                    "WHERE (first_name LIKE ? AND last_name LIKE ?) OR (last_name LIKE ? AND first_name LIKE ?) " +
+                    "ORDER BY last_name, first_name, id LIMIT ?";
+            params = new String[] { first, rest, first, rest };
+        }
+
+        try (Connection conn = dbManager.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setString(i + 1, params[i]);
+            }
+            pstmt.setInt(params.length + 1, limit);
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                summaries.add(new GuestSummary(
+                        rs.getInt("id"),
+                        rs.getString("first_name"),
+                        rs.getString("last_name"),
+                        rs.getString("id_number")));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return summaries;
+    }
+
+    // Best matches first, at most DatabaseConfig.getGuestSearchLimit() guests
     public ObservableList<Guest> searchGuests(String searchTerm) {
+        // Check-in desks type or scan the document the guest presents; an exact id number is
+        // answered from the cache's id_number key (or one unique-index probe) without a search
+        String term = searchTerm == null ? "" : searchTerm.trim();
+        if (!term.isEmpty() && !term.contains(" ")) {
+            Guest byDocument = getGuestByIdNumber(term);
+            if (byDocument != null) {
+                return FXCollections.observableArrayList(byDocument);
+            }
+        }
+
+        int limit = DatabaseConfig.getGuestSearchLimit();
+        if (usesFullTextSearch()) {
+            return searchGuestsFullText(searchTerm, limit);
+        }
+        if (!searchIndex.isAvailable()) {
+            return searchGuestsLike(searchTerm, limit);
+        }
+        return getGuestsInOrder(searchIndex.search(searchTerm, limit));
+    }
+
+    // Every word must match the start of a word in one of the indexed columns
+    private ObservableList<Guest> searchGuestsFullText(String searchTerm, int limit) {
+        ObservableList<Guest> guests = FXCollections.observableArrayList();
+        String booleanQuery = toBooleanQuery(searchTerm);
+        if (booleanQuery.isEmpty()) {
+            return guests;
+        }
+
+        String match = "MATCH (" + FULLTEXT_COLUMNS + ") AGAINST (? IN BOOLEAN MODE)";
+        String query = "SELECT *, " + match + " AS score FROM guests WHERE " + match +
+                " ORDER BY score DESC, id DESC LIMIT ?";
+
+        try (Connection conn = dbManager.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            pstmt.setString(1, booleanQuery);
+            pstmt.setString(2, booleanQuery);
+            pstmt.setInt(3, limit);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                guests.add(createGuestFromRow(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return guests;
+    }
+
+    // "john sm" -> "+john* +sm*"; boolean-mode operators typed by the user are dropped
+    private static String toBooleanQuery(String searchTerm) {
+        StringBuilder query = new StringBuilder();
+        if (searchTerm == null) {
+            return "";
+        }
+        for (String word : searchTerm.trim().split("\\s+")) {
+            String cleaned = word.replaceAll("[+\\-<>()~*\"@]", "");
+            if (!cleaned.isEmpty()) {
+                query.append(query.length() > 0 ? " " : "").append('+').append(cleaned).append('*');
+            }
+        }
+        return query.toString();
+    }
+
+    // Only used when the search index could not be built
+    private ObservableList<Guest> searchGuestsLike(String searchTerm, int limit) {
         ObservableList<Guest> guests = FXCollections.observableArrayList();
         String query = "SELECT * FROM guests WHERE first_name LIKE ? OR last_name LIKE ? OR " +
-                "email LIKE ? OR phone LIKE ? OR id_number LIKE ?";
+                "email LIKE ? OR phone LIKE ? OR id_number LIKE ? ORDER BY id DESC LIMIT ?";
 
         try (Connection conn = dbManager.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -141,22 +375,61 @@ public class GuestDAO {
             for (int i = 1; i <= 5; i++) {
                 pstmt.setString(i, searchPattern);
             }
+            pstmt.setInt(6, limit);
 
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
-                Guest guest = new Guest(
-                        rs.getInt("id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("email"),
-                        rs.getString("phone"),
-                        rs.getString("id_number"),
-                        rs.getString("address"));
-                guests.add(guest);
+                guests.add(createGuestFromRow(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return guests;
     }
+
+    // Loads the ranked ids with IN lookups and returns the guests in ranking order
+    private ObservableList<Guest> getGuestsInOrder(List<Integer> ids) {
+        ObservableList<Guest> guests = FXCollections.observableArrayList();
+        if (ids.isEmpty()) {
+            return guests;
+        }
+
+        Map<Integer, Guest> byId = new HashMap<>();
+        try (Connection conn = dbManager.getConnection()) {
+            for (List<Integer> chunk : InClause.chunks(ids)) {
+                String query = "SELECT * FROM guests WHERE id IN (" + InClause.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        Guest guest = createGuestFromRow(rs);
+                        byId.put(guest.getId(), guest);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        for (Integer id : ids) {
+            Guest guest = byId.get(id);
+            if (guest != null) {
+                guests.add(guest);
+            }
+        }
+        return guests;
+    }
+
+    private static Guest createGuestFromRow(ResultSet rs) throws SQLException {
+        return new Guest(
+                rs.getInt("id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getString("id_number"),
+                rs.getString("address"));
+    }
 }
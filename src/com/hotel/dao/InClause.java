@@ -0,0 +1,35 @@
+package com.hotel.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// Helpers for building "column IN (?, ?, ...)" lookups over a set of keys
+final class InClause {
+    // Keeps statements well below server packet and placeholder limits
+    static final int MAX_KEYS_PER_QUERY = 1000;
+
+    private InClause() {
+    }
+
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    static <T> List<List<T>> chunks(Collection<T> keys) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>();
+        for (T key : keys) {
+            current.add(key);
+            if (current.size() == MAX_KEYS_PER_QUERY) {
+                chunks.add(current);
+                current = new ArrayList<>();
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,96 @@
+package com.hotel.dao;
+
+import com.hotel.model.PaymentMethod;
+import com.hotel.model.PaymentStatus;
+
+import java.time.LocalDate;
+
+// Filters and sort order for PaymentDAO.findPayments. Unset (null) filters are ignored.
+public class PaymentCriteria {
+
+    public enum Sort {
+        NEWEST("Newest first", true),
+        AMOUNT("Highest amount", true);
+
+        private final String displayName;
+        private final boolean descending;
+
+        Sort(String displayName, boolean descending) {
+            this.displayName = displayName;
+            this.descending = descending;
+        }
+
+        public boolean isDescending() {
+            return descending;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private PaymentMethod method;
+    private PaymentStatus status;
+    private LocalDate paidFrom;
+    private LocalDate paidTo;
+    private String searchTerm;
+    private Sort sort = Sort.NEWEST;
+
+    public PaymentMethod getMethod() {
+        return method;
+    }
+
+    public void setMethod(PaymentMethod method) {
+        this.method = method;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+
+    // Inclusive
+    public LocalDate getPaidFrom() {
+        return paidFrom;
+    }
+
+    public void setPaidFrom(LocalDate paidFrom) {
+        this.paidFrom = paidFrom;
+    }
+
+    // Exclusive
+    public LocalDate getPaidTo() {
+        return paidTo;
+    }
+
+    public void setPaidTo(LocalDate paidTo) {
+        this.paidTo = paidTo;
+    }
+
+    // Matched against guest name, transaction id and payment id
+    public String getSearchTerm() {
+        return searchTerm;
+    }
+
+    public void setSearchTerm(String searchTerm) {
+        this.searchTerm = searchTerm;
+    }
+
+    // True when any filter narrows the rows; the sort order alone does not count
+    public boolean isFiltered() {
+        return method != null || status != null || paidFrom != null || paidTo != null ||
+                (searchTerm != null && !searchTerm.trim().isEmpty());
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public void setSort(Sort sort) {
+        this.sort = sort != null ? sort : Sort.NEWEST;
+    }
+}
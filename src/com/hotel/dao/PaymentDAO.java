@@ -10,29 +10,41 @@ import javafx.collections.ObservableList;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class PaymentDAO {
+    private static final String PAYMENT_COLUMNS = "p.id AS payment_id, p.reservation_id, p.amount, " +
+            "p.payment_method, p.payment_date, p.status AS payment_status, p.transaction_id, " +
+            "p.notes AS payment_notes ";
+
+    // Payments with their reservation, guest and room loaded in the same statement
+    private static final String SELECT_PAYMENT_GRAPH = "SELECT " + PAYMENT_COLUMNS + ", " +
+            ReservationDAO.RESERVATION_GRAPH_COLUMNS +
+            "FROM payments p " +
+            "JOIN reservations r ON r.id = p.reservation_id " +
+            ReservationDAO.RESERVATION_GRAPH_JOINS;
+
+    private static final String INSERT_PAYMENT = "INSERT INTO payments (reservation_id, amount, payment_method, " +
+            "payment_date, status, transaction_id, notes) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_PAYMENT = "UPDATE payments SET reservation_id=?, amount=?, payment_method=?, " +
+            "payment_date=?, status=?, transaction_id=?, notes=? WHERE id=?";
+
     private final DatabaseManager dbManager;
-    private final ReservationDAO reservationDAO;
 
-    public PaymentDAO() {
-        this.dbManager = DatabaseManager.getInstance();
-        this.reservationDAO = new ReservationDAO();
+    public PaymentDAO(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
     }
 
     public ObservableList<Payment> getAllPayments() {
         ObservableList<Payment> payments = FXCollections.observableArrayList();
-        String query = "SELECT * FROM payments ORDER BY id DESC";
+        String query = SELECT_PAYMENT_GRAPH + "ORDER BY p.id DESC";
 
         try (Connection conn = dbManager.getConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(query)) {
 
             while (rs.next()) {
-                Payment payment = createPaymentFromResultSet(rs);
-                if (payment != null) {
-                    payments.add(payment);
-                }
+                payments.add(createPaymentFromRow(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -40,20 +52,47 @@ public class PaymentDAO {
         return payments;
     }
 
-    public boolean addPayment(Payment payment) {
-        String query = "INSERT INTO payments (reservation_id, amount, payment_method, payment_date, " +
-                "status, transaction_id, notes) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // Any combination of the criteria as one statement, filtered, sorted and limited in SQL.
+    // after is the last row of the previous page (null for the first), so paging seeks instead of
+    // using OFFSET under every sort order.
+    public ObservableList<Payment> findPayments(PaymentCriteria criteria, Payment after, int limit) {
+        ObservableList<Payment> payments = FXCollections.observableArrayList();
+        PaymentCriteria.Sort sort = criteria.getSort();
+        String sortColumn = sort == PaymentCriteria.Sort.AMOUNT ? "p.amount" : "p.id";
+
+        SqlCriteria sql = new SqlCriteria()
+                .equal("p.payment_method", criteria.getMethod())
+                .equal("p.status", criteria.getStatus())
+                .atLeast("p.payment_date", criteria.getPaidFrom())
+                .before("p.payment_date", criteria.getPaidTo())
+                .contains(criteria.getSearchTerm(),
+                        "CONCAT(g.first_name, ' ', g.last_name)", "p.transaction_id", "CAST(p.id AS CHAR)");
+        if (after != null) {
+            Object sortValue = sort == PaymentCriteria.Sort.AMOUNT ? after.getAmount() : after.getId();
+            sql.seekAfter(sortColumn, sortValue, "p.id", after.getId(), sort.isDescending());
+        }
+        sql.orderBy(sortColumn, "p.id", sort.isDescending()).limit(limit);
+
+        try (Connection conn = dbManager.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql.toSql(SELECT_PAYMENT_GRAPH))) {
+
+            sql.bind(pstmt);
+            ResultSet rs = pstmt.executeQuery();
 
+            while (rs.next()) {
+                payments.add(createPaymentFromRow(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return payments;
+    }
+
+    public boolean addPayment(Payment payment) {
         try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                PreparedStatement pstmt = conn.prepareStatement(INSERT_PAYMENT, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setInt(1, payment.getReservation().getId());
-            pstmt.setDouble(2, payment.getAmount());
-            pstmt.setString(3, payment.getPaymentMethod().name());
-            pstmt.setTimestamp(4, Timestamp.valueOf(payment.getPaymentDate()));
-            pstmt.setString(5, payment.getStatus().name());
-            pstmt.setString(6, payment.getTransactionId());
-            pstmt.setString(7, payment.getNotes());
+            bindPayment(pstmt, payment);
 
             int result = pstmt.executeUpdate();
 
@@ -71,19 +110,10 @@ public class PaymentDAO {
     }
 
     public boolean updatePayment(Payment payment) {
-        String query = "UPDATE payments SET reservation_id=?, amount=?, payment_method=?, " +
-                "payment_date=?, status=?, transaction_id=?, notes=? WHERE id=?";
-
         try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+                PreparedStatement pstmt = conn.prepareStatement(UPDATE_PAYMENT)) {
 
-            pstmt.setInt(1, payment.getReservation().getId());
-            pstmt.setDouble(2, payment.getAmount());
-            pstmt.setString(3, payment.getPaymentMethod().name());
-            pstmt.setTimestamp(4, Timestamp.valueOf(payment.getPaymentDate()));
-            pstmt.setString(5, payment.getStatus().name());
-            pstmt.setString(6, payment.getTransactionId());
-            pstmt.setString(7, payment.getNotes());
+            bindPayment(pstmt, payment);
             pstmt.setInt(8, payment.getId());
 
             return pstmt.executeUpdate() > 0;
@@ -93,6 +123,40 @@ public class PaymentDAO {
         return false;
     }
 
+    // Batched insert of many payments in one transaction; generated ids are set on the payments
+    public boolean addAll(List<Payment> payments) {
+        try {
+            BatchWriter.insertAll(dbManager, INSERT_PAYMENT, payments, PaymentDAO::bindPayment, Payment::setId);
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public boolean updateAll(List<Payment> payments) {
+        try {
+            BatchWriter.updateAll(dbManager, UPDATE_PAYMENT, payments, (pstmt, payment) -> {
+                bindPayment(pstmt, payment);
+                pstmt.setInt(8, payment.getId());
+            });
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static void bindPayment(PreparedStatement pstmt, Payment payment) throws SQLException {
+        pstmt.setInt(1, payment.getReservation().getId());
+        pstmt.setDouble(2, payment.getAmount());
+        pstmt.setString(3, payment.getPaymentMethod().name());
+        pstmt.setTimestamp(4, Timestamp.valueOf(payment.getPaymentDate()));
+        pstmt.setString(5, payment.getStatus().name());
+        pstmt.setString(6, payment.getTransactionId());
+        pstmt.setString(7, payment.getNotes());
+    }
+
     public boolean deletePayment(int paymentId) {
         String query = "DELETE FROM payments WHERE id=?";
 
@@ -109,7 +173,7 @@ public class PaymentDAO {
 
     public ObservableList<Payment> getPaymentsByReservation(int reservationId) {
         ObservableList<Payment> payments = FXCollections.observableArrayList();
-        String query = "SELECT * FROM payments WHERE reservation_id=?";
+        String query = SELECT_PAYMENT_GRAPH + "WHERE p.reservation_id=?";
 
         try (Connection conn = dbManager.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -118,10 +182,7 @@ public class PaymentDAO {
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Payment payment = createPaymentFromResultSet(rs);
-                if (payment != null) {
-                    payments.add(payment);
-                }
+                payments.add(createPaymentFromRow(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -145,25 +206,20 @@ public class PaymentDAO {
         return 0.0;
     }
 
-    private Payment createPaymentFromResultSet(ResultSet rs) throws SQLException {
-        int reservationId = rs.getInt("reservation_id");
-        Reservation reservation = reservationDAO.getReservationById(reservationId);
-
-        if (reservation == null) {
-            return null;
-        }
+    private Payment createPaymentFromRow(ResultSet rs) throws SQLException {
+        Reservation reservation = ReservationDAO.createReservationFromJoinedRow(rs);
 
         Timestamp ts = rs.getTimestamp("payment_date");
         LocalDateTime paymentDate = ts != null ? ts.toLocalDateTime() : LocalDateTime.now();
 
         return new Payment(
-                rs.getInt("id"),
+                rs.getInt("payment_id"),
                 reservation,
                 rs.getDouble("amount"),
                 PaymentMethod.valueOf(rs.getString("payment_method")),
                 paymentDate,
-                PaymentStatus.valueOf(rs.getString("status")),
+                PaymentStatus.valueOf(rs.getString("payment_status")),
                 rs.getString("transaction_id"),
-                rs.getString("notes"));
+                rs.getString("payment_notes"));
     }
 }
@@ -0,0 +1,97 @@
+package com.hotel.dao;
+
+import com.hotel.model.ReservationStatus;
+import com.hotel.model.RoomType;
+
+import java.time.LocalDate;
+
+// Filters and sort order for ReservationDAO.findReservations. Unset (null) filters are ignored.
+public class ReservationCriteria {
+
+    public enum Sort {
+        NEWEST("Newest first", true),
+        CHECK_IN("Check-in date", false),
+        TOTAL_PRICE("Highest total", true);
+
+        private final String displayName;
+        private final boolean descending;
+
+        Sort(String displayName, boolean descending) {
+            this.displayName = displayName;
+            this.descending = descending;
+        }
+
+        public boolean isDescending() {
+            return descending;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private ReservationStatus status;
+    private RoomType roomType;
+    private LocalDate checkInFrom;
+    private LocalDate checkInTo;
+    private String searchTerm;
+    private Sort sort = Sort.NEWEST;
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(RoomType roomType) {
+        this.roomType = roomType;
+    }
+
+    // Inclusive
+    public LocalDate getCheckInFrom() {
+        return checkInFrom;
+    }
+
+    public void setCheckInFrom(LocalDate checkInFrom) {
+        this.checkInFrom = checkInFrom;
+    }
+
+    // Exclusive
+    public LocalDate getCheckInTo() {
+        return checkInTo;
+    }
+
+    public void setCheckInTo(LocalDate checkInTo) {
+        this.checkInTo = checkInTo;
+    }
+
+    // Matched against guest name, room number and reservation id
+    public String getSearchTerm() {
+        return searchTerm;
+    }
+
+    public void setSearchTerm(String searchTerm) {
+        this.searchTerm = searchTerm;
+    }
+
+    // True when any filter narrows the rows; the sort order alone does not count
+    public boolean isFiltered() {
+        return status != null || roomType != null || checkInFrom != null || checkInTo != null ||
+                (searchTerm != null && !searchTerm.trim().isEmpty());
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public void setSort(Sort sort) {
+        this.sort = sort != null ? sort : Sort.NEWEST;
+    }
+}
@@ -1,40 +1,56 @@
 package com.hotel.dao;
 
+import com.hotel.config.DatabaseConfig;
+import com.hotel.model.OutstandingReservation;
 import com.hotel.model.Reservation;
 import com.hotel.model.ReservationStatus;
 import com.hotel.model.Guest;
 import com.hotel.model.Room;
+import com.hotel.model.RoomStatus;
+import com.hotel.model.RoomType;
 import com.hotel.service.DatabaseManager;
+import com.hotel.service.RoomAvailabilityIndex;
+import com.hotel.service.UnitOfWork;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ReservationDAO {
+    // Columns and joins needed to build a reservation with its guest and room from one row
+    static final String RESERVATION_GRAPH_COLUMNS = "r.id, r.guest_id, r.room_number, r.check_in_date, " +
+            "r.check_out_date, r.status, r.total_price, r.notes, " +
+            "g.first_name, g.last_name, g.email, g.phone, g.id_number, g.address, " +
+            "rm.type AS room_type, rm.status AS room_status, rm.price_per_night, " +
+            "rm.description AS room_description, rm.max_occupancy ";
+    static final String RESERVATION_GRAPH_JOINS = "JOIN guests g ON g.id = r.guest_id " +
+            "JOIN rooms rm ON rm.room_number = r.room_number ";
+    private static final String SELECT_RESERVATION_GRAPH = "SELECT " + RESERVATION_GRAPH_COLUMNS +
+            "FROM reservations r " + RESERVATION_GRAPH_JOINS;
+
     private final DatabaseManager dbManager;
-    private final GuestDAO guestDAO;
-    private final RoomDAO roomDAO;
+    private final RoomAvailabilityIndex availabilityIndex;
 
-    public ReservationDAO() {
-        this.dbManager = DatabaseManager.getInstance();
-        this.guestDAO = new GuestDAO();
-        this.roomDAO = new RoomDAO();
+    public ReservationDAO(DatabaseManager dbManager, RoomAvailabilityIndex availabilityIndex) {
+        this.dbManager = dbManager;
+        this.availabilityIndex = availabilityIndex;
     }
 
     public ObservableList<Reservation> getAllReservations() {
         ObservableList<Reservation> reservations = FXCollections.observableArrayList();
-        String query = "SELECT * FROM reservations ORDER BY id DESC";
+        String query = SELECT_RESERVATION_GRAPH + "ORDER BY r.id DESC";
 
         try (Connection conn = dbManager.getConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(query)) {
 
             while (rs.next()) {
-                Reservation reservation = createReservationFromResultSet(rs);
-                if (reservation != null) {
-                    reservations.add(reservation);
-                }
+                reservations.add(createReservationFromJoinedRow(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -42,59 +58,242 @@ public class ReservationDAO {
         return reservations;
     }
 
-    public boolean addReservation(Reservation reservation) {
-        String query = "INSERT INTO reservations (guest_id, room_number, check_in_date, check_out_date, " +
-                "status, total_price, notes) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // Any combination of the criteria as one statement, filtered, sorted and limited in SQL.
+    // after is the last row of the previous page (null for the first), so paging seeks instead of
+    // using OFFSET under every sort order.
+    public ObservableList<Reservation> findReservations(ReservationCriteria criteria, Reservation after, int limit) {
+        ObservableList<Reservation> reservations = FXCollections.observableArrayList();
+        ReservationCriteria.Sort sort = criteria.getSort();
+        String sortColumn = sortColumn(sort);
+
+        SqlCriteria sql = new SqlCriteria()
+                .equal("r.status", criteria.getStatus())
+                .equal("rm.type", criteria.getRoomType())
+                .atLeast("r.check_in_date", criteria.getCheckInFrom())
+                .before("r.check_in_date", criteria.getCheckInTo())
+                .contains(criteria.getSearchTerm(),
+                        "CONCAT(g.first_name, ' ', g.last_name)", "r.room_number", "CAST(r.id AS CHAR)");
+        if (after != null) {
+            sql.seekAfter(sortColumn, sortValue(sort, after), "r.id", after.getId(), sort.isDescending());
+        }
+        sql.orderBy(sortColumn, "r.id", sort.isDescending()).limit(limit);
 
         try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-
-            pstmt.setInt(1, reservation.getGuest().getId());
-            pstmt.setString(2, reservation.getRoom().getRoomNumber());
-            pstmt.setDate(3, Date.valueOf(reservation.getCheckInDate()));
-            pstmt.setDate(4, Date.valueOf(reservation.getCheckOutDate()));
-            pstmt.setString(5, reservation.getStatus().name());
-            pstmt.setDouble(6, reservation.getTotalPrice());
-            pstmt.setString(7, reservation.getNotes());
-
-            int result = pstmt.executeUpdate();
-
-            if (result > 0) {
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    reservation.setId(rs.getInt(1));
-                }
-                return true;
+                PreparedStatement pstmt = conn.prepareStatement(sql.toSql(SELECT_RESERVATION_GRAPH))) {
+
+            sql.bind(pstmt);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                reservations.add(createReservationFromJoinedRow(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return false;
+        return reservations;
     }
 
-    public boolean updateReservation(Reservation reservation) {
-        String query = "UPDATE reservations SET guest_id=?, room_number=?, check_in_date=?, " +
-                "check_out_date=?, status=?, total_price=?, notes=? WHERE id=?";
+    // Checked-in and checked-out reservations whose room total plus service charges exceeds their
+    // completed payments, newest check-in first. Balances are summed per reservation in the same
+    // statement (via the reservation_id indexes) instead of loading payments reservation by reservation.
+    public ObservableList<OutstandingReservation> findOutstandingReservations() {
+        ObservableList<OutstandingReservation> outstanding = FXCollections.observableArrayList();
+        String query = "SELECT " + RESERVATION_GRAPH_COLUMNS + ", " +
+                "(SELECT COALESCE(SUM(s.total_price), 0) FROM reservation_services s " +
+                "WHERE s.reservation_id = r.id AND s.status != 'CANCELLED') AS service_charges, " +
+                "(SELECT COALESCE(SUM(p.amount), 0) FROM payments p " +
+                "WHERE p.reservation_id = r.id AND p.status = 'COMPLETED') AS amount_paid " +
+                "FROM reservations r " + RESERVATION_GRAPH_JOINS +
+                "WHERE r.status IN (?, ?) " +
+                "HAVING r.total_price + service_charges - amount_paid > 0.005 " +
+                "ORDER BY r.check_in_date DESC, r.id DESC";
 
         try (Connection conn = dbManager.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-            pstmt.setInt(1, reservation.getGuest().getId());
-            pstmt.setString(2, reservation.getRoom().getRoomNumber());
-            pstmt.setDate(3, Date.valueOf(reservation.getCheckInDate()));
-            pstmt.setDate(4, Date.valueOf(reservation.getCheckOutDate()));
-            pstmt.setString(5, reservation.getStatus().name());
-            pstmt.setDouble(6, reservation.getTotalPrice());
-            pstmt.setString(7, reservation.getNotes());
-            pstmt.setInt(8, reservation.getId());
+            pstmt.setString(1, ReservationStatus.CHECKED_IN.name());
+            pstmt.setString(2, ReservationStatus.CHECKED_OUT.name());
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                outstanding.add(new OutstandingReservation(
+                        createReservationFromJoinedRow(rs),
+                        rs.getDouble("service_charges"),
+                        rs.getDouble("amount_paid")));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return outstanding;
+    }
+
+    private static String sortColumn(ReservationCriteria.Sort sort) {
+        switch (sort) {
+            case CHECK_IN:
+                return "r.check_in_date";
+            case TOTAL_PRICE:
+                return "r.total_price";
+            default:
+                return "r.id";
+        }
+    }
+
+    private static Object sortValue(ReservationCriteria.Sort sort, Reservation reservation) {
+        switch (sort) {
+            case CHECK_IN:
+                return reservation.getCheckInDate();
+            case TOTAL_PRICE:
+                return reservation.getTotalPrice();
+            default:
+                return reservation.getId();
+        }
+    }
+
+    // Both writes go through a unit of work so room_nights is kept in step with the reservation
+    public boolean addReservation(Reservation reservation) {
+        try (UnitOfWork work = new UnitOfWork(dbManager)) {
+            addReservation(work, reservation);
+            work.commit();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    public boolean updateReservation(Reservation reservation) {
+        try (UnitOfWork work = new UnitOfWork(dbManager)) {
+            updateReservation(work, reservation);
+            work.commit();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
 
-            return pstmt.executeUpdate() > 0;
+    // Many reservations in one transaction. Each reservation row needs its generated key before its
+    // room_nights rows can reference it, so those are inserted one by one; the nights go out as batches.
+    public boolean addAll(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return true;
+        }
+        try (UnitOfWork work = new UnitOfWork(dbManager)) {
+            int batchSize = DatabaseConfig.getBatchSize();
+            for (int i = 0; i < reservations.size(); i++) {
+                addReservation(work, reservations.get(i));
+                if ((i + 1) % batchSize == 0) {
+                    work.flush();
+                }
+            }
+            work.commit();
+            return true;
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return false;
     }
 
+    public boolean updateAll(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return true;
+        }
+        try (UnitOfWork work = new UnitOfWork(dbManager)) {
+            int batchSize = DatabaseConfig.getBatchSize();
+            for (int i = 0; i < reservations.size(); i++) {
+                updateReservation(work, reservations.get(i));
+                if ((i + 1) % batchSize == 0) {
+                    work.flush();
+                }
+            }
+            work.commit();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    // Transactional insert: the row and the nights it holds in room_nights are written in the same
+    // unit of work, so a night already taken by another booking fails the whole unit. The id is
+    // assigned to the reservation once the work commits.
+    public void addReservation(UnitOfWork work, Reservation reservation) throws SQLException {
+        int id = work.insert("INSERT INTO reservations (guest_id, room_number, check_in_date, check_out_date, " +
+                "status, total_price, notes) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                pstmt -> bindReservation(pstmt, reservation));
+        if (RoomAvailabilityIndex.blocksRoom(reservation.getStatus())) {
+            queueNights(work, id, reservation);
+        }
+        work.afterCommit(() -> {
+            reservation.setId(id);
+            availabilityIndex.onReservationSaved(reservation);
+        });
+    }
+
+    // Transactional update: the reservation's nights are released and claimed again for its
+    // current room and dates
+    public void updateReservation(UnitOfWork work, Reservation reservation) throws SQLException {
+        work.batch("UPDATE reservations SET guest_id=?, room_number=?, check_in_date=?, " +
+                "check_out_date=?, status=?, total_price=?, notes=? WHERE id=?", pstmt -> {
+                    bindReservation(pstmt, reservation);
+                    pstmt.setInt(8, reservation.getId());
+                });
+        releaseNights(work, reservation.getId());
+        if (RoomAvailabilityIndex.blocksRoom(reservation.getStatus())) {
+            queueNights(work, reservation.getId(), reservation);
+        }
+        work.afterCommit(() -> availabilityIndex.onReservationSaved(reservation));
+    }
+
+    private static void bindReservation(PreparedStatement pstmt, Reservation reservation) throws SQLException {
+        pstmt.setInt(1, reservation.getGuest().getId());
+        pstmt.setString(2, reservation.getRoom().getRoomNumber());
+        pstmt.setDate(3, Date.valueOf(reservation.getCheckInDate()));
+        pstmt.setDate(4, Date.valueOf(reservation.getCheckOutDate()));
+        pstmt.setString(5, reservation.getStatus().name());
+        pstmt.setDouble(6, reservation.getTotalPrice());
+        pstmt.setString(7, reservation.getNotes());
+    }
+
+    // One batched row per night of the stay [checkIn, checkOut)
+    private static void queueNights(UnitOfWork work, int reservationId, Reservation reservation) throws SQLException {
+        String roomNumber = reservation.getRoom().getRoomNumber();
+        for (LocalDate night = reservation.getCheckInDate(); night.isBefore(reservation.getCheckOutDate());
+                night = night.plusDays(1)) {
+            Date nightDate = Date.valueOf(night);
+            work.batch("INSERT INTO room_nights (room_number, night, reservation_id) VALUES (?, ?, ?)", pstmt -> {
+                pstmt.setString(1, roomNumber);
+                pstmt.setDate(2, nightDate);
+                pstmt.setInt(3, reservationId);
+            });
+        }
+    }
+
+    private static void releaseNights(UnitOfWork work, int reservationId) throws SQLException {
+        work.batchAny("DELETE FROM room_nights WHERE reservation_id=?", pstmt -> pstmt.setInt(1, reservationId));
+    }
+
+    // Queues a status change that only matches while the row still has the status the reservation
+    // was loaded with; the reservation and the availability index follow once the work commits
+    public void updateStatus(UnitOfWork work, Reservation reservation, ReservationStatus newStatus) throws SQLException {
+        ReservationStatus expected = reservation.getStatus();
+        work.batch("UPDATE reservations SET status=? WHERE id=? AND status=?", pstmt -> {
+            pstmt.setString(1, newStatus.name());
+            pstmt.setInt(2, reservation.getId());
+            pstmt.setString(3, expected.name());
+        });
+        // Cancelling or checking out frees the room's remaining nights
+        if (RoomAvailabilityIndex.blocksRoom(expected) && !RoomAvailabilityIndex.blocksRoom(newStatus)) {
+            releaseNights(work, reservation.getId());
+        } else if (!RoomAvailabilityIndex.blocksRoom(expected) && RoomAvailabilityIndex.blocksRoom(newStatus)) {
+            queueNights(work, reservation.getId(), reservation);
+        }
+        work.afterCommit(() -> {
+            reservation.setStatus(newStatus);
+            availabilityIndex.onReservationSaved(reservation);
+        });
+    }
+
     public boolean deleteReservation(int reservationId) {
         String query = "DELETE FROM reservations WHERE id=?";
 
@@ -102,7 +301,10 @@ public class ReservationDAO {
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
 
             pstmt.setInt(1, reservationId);
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                availabilityIndex.onReservationDeleted(reservationId);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -110,7 +312,7 @@ public class ReservationDAO {
     }
 
     public Reservation getReservationById(int id) {
-        String query = "SELECT * FROM reservations WHERE id=?";
+        String query = SELECT_RESERVATION_GRAPH + "WHERE r.id=?";
 
         try (Connection conn = dbManager.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -119,7 +321,7 @@ public class ReservationDAO {
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                return createReservationFromResultSet(rs);
+                return createReservationFromJoinedRow(rs);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -127,36 +329,62 @@ public class ReservationDAO {
         return null;
     }
 
-    public boolean isRoomAvailable(String roomNumber, LocalDate checkIn, LocalDate checkOut) {
-        String query = "SELECT COUNT(*) FROM reservations WHERE room_number=? AND status != 'CANCELLED' " +
-                "AND ((check_in_date <= ? AND check_out_date > ?) OR " +
-                "(check_in_date < ? AND check_out_date >= ?) OR " +
-                "(check_in_date >= ? AND check_out_date <= ?))";
+    public Map<Integer, Reservation> getReservationsByIds(Collection<Integer> ids) {
+        Map<Integer, Reservation> reservations = new HashMap<>();
+        if (ids.isEmpty()) {
+            return reservations;
+        }
 
-        try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+        try (Connection conn = dbManager.getConnection()) {
+            for (List<Integer> chunk : InClause.chunks(ids)) {
+                String query = SELECT_RESERVATION_GRAPH + "WHERE r.id IN (" + InClause.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        Reservation reservation = createReservationFromJoinedRow(rs);
+                        reservations.put(reservation.getId(), reservation);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return reservations;
+    }
 
-            pstmt.setString(1, roomNumber);
-            pstmt.setDate(2, Date.valueOf(checkOut));
-            pstmt.setDate(3, Date.valueOf(checkIn));
-            pstmt.setDate(4, Date.valueOf(checkOut));
-            pstmt.setDate(5, Date.valueOf(checkIn));
-            pstmt.setDate(6, Date.valueOf(checkIn));
-            pstmt.setDate(7, Date.valueOf(checkOut));
+    public boolean isRoomAvailable(String roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        return isRoomAvailable(roomNumber, checkIn, checkOut, 0);
+    }
 
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) == 0;
+    // A range probe on the room_nights primary key (room_number, night), so bookings made by other
+    // clients count as well. Without a database the in-memory index answers from this client's view.
+    public boolean isRoomAvailable(String roomNumber, LocalDate checkIn, LocalDate checkOut, int ignoredReservationId) {
+        String query = "SELECT 1 FROM room_nights WHERE room_number=? AND night >= ? AND night < ? " +
+                "AND reservation_id <> ? LIMIT 1";
+
+        try (Connection conn = dbManager.getConnection()) {
+            if (conn != null) {
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    pstmt.setString(1, roomNumber);
+                    pstmt.setDate(2, Date.valueOf(checkIn));
+                    pstmt.setDate(3, Date.valueOf(checkOut));
+                    pstmt.setInt(4, ignoredReservationId);
+                    ResultSet rs = pstmt.executeQuery();
+                    return !rs.next();
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return false;
+        return availabilityIndex.isAvailable(roomNumber, checkIn, checkOut, ignoredReservationId);
     }
 
     public ObservableList<Reservation> getReservationsByStatus(ReservationStatus status) {
         ObservableList<Reservation> reservations = FXCollections.observableArrayList();
-        String query = "SELECT * FROM reservations WHERE status=? ORDER BY check_in_date DESC";
+        String query = SELECT_RESERVATION_GRAPH + "WHERE r.status=? ORDER BY r.check_in_date DESC";
 
         try (Connection conn = dbManager.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -165,10 +393,7 @@ public class ReservationDAO {
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Reservation reservation = createReservationFromResultSet(rs);
-                if (reservation != null) {
-                    reservations.add(reservation);
-                }
+                reservations.add(createReservationFromJoinedRow(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -178,7 +403,7 @@ public class ReservationDAO {
 
     public ObservableList<Reservation> getReservationsByRoom(String roomNumber) {
         ObservableList<Reservation> reservations = FXCollections.observableArrayList();
-        String query = "SELECT * FROM reservations WHERE room_number=? ORDER BY check_in_date DESC";
+        String query = SELECT_RESERVATION_GRAPH + "WHERE r.room_number=? ORDER BY r.check_in_date DESC";
 
         try (Connection conn = dbManager.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -187,10 +412,7 @@ public class ReservationDAO {
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Reservation reservation = createReservationFromResultSet(rs);
-                if (reservation != null) {
-                    reservations.add(reservation);
-                }
+                reservations.add(createReservationFromJoinedRow(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -198,16 +420,23 @@ public class ReservationDAO {
         return reservations;
     }
 
-    private Reservation createReservationFromResultSet(ResultSet rs) throws SQLException {
-        int guestId = rs.getInt("guest_id");
-        String roomNumber = rs.getString("room_number");
-
-        Guest guest = guestDAO.getGuestById(guestId);
-        Room room = roomDAO.getRoomByNumber(roomNumber);
-
-        if (guest == null || room == null) {
-            return null;
-        }
+    static Reservation createReservationFromJoinedRow(ResultSet rs) throws SQLException {
+        Guest guest = new Guest(
+                rs.getInt("guest_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getString("id_number"),
+                rs.getString("address"));
+
+        Room room = new Room(
+                rs.getString("room_number"),
+                RoomType.valueOf(rs.getString("room_type")),
+                RoomStatus.valueOf(rs.getString("room_status")),
+                rs.getDouble("price_per_night"),
+                rs.getString("room_description"),
+                rs.getInt("max_occupancy"));
 
         return new Reservation(
                 rs.getInt("id"),
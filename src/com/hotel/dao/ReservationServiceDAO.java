@@ -9,20 +9,30 @@ import javafx.collections.ObservableList;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class ReservationServiceDAO {
+    private static final String INSERT_LINE_ITEM = "INSERT INTO reservation_services (reservation_id, service_id, " +
+            "quantity, date_requested, status, total_price, notes) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_LINE_ITEM = "UPDATE reservation_services SET reservation_id=?, service_id=?, " +
+            "quantity=?, date_requested=?, status=?, total_price=?, notes=? WHERE id=?";
+
     private final DatabaseManager dbManager;
     private final ReservationDAO reservationDAO;
     private final ServiceDAO serviceDAO;
 
-    public ReservationServiceDAO() {
-        this.dbManager = DatabaseManager.getInstance();
-        this.reservationDAO = new ReservationDAO();
-        this.serviceDAO = new ServiceDAO();
+    public ReservationServiceDAO(DatabaseManager dbManager, ReservationDAO reservationDAO, ServiceDAO serviceDAO) {
+        this.dbManager = dbManager;
+        this.reservationDAO = reservationDAO;
+        this.serviceDAO = serviceDAO;
     }
 
     public ObservableList<ReservationService> getAllReservationServices() {
-        ObservableList<ReservationService> reservationServices = FXCollections.observableArrayList();
+        List<LineItemRow> rows = new ArrayList<>();
         String query = "SELECT * FROM reservation_services ORDER BY id DESC";
 
         try (Connection conn = dbManager.getConnection();
@@ -30,31 +40,19 @@ public class ReservationServiceDAO {
                 ResultSet rs = stmt.executeQuery(query)) {
 
             while (rs.next()) {
-                ReservationService rsvc = createReservationServiceFromResultSet(rs);
-                if (rsvc != null) {
-                    reservationServices.add(rsvc);
-                }
+                rows.add(new LineItemRow(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return reservationServices;
+        return hydrate(rows);
     }
 
     public boolean addReservationService(ReservationService reservationService) {
-        String query = "INSERT INTO reservation_services (reservation_id, service_id, quantity, " +
-                "date_requested, status, total_price, notes) VALUES (?, ?, ?, ?, ?, ?, ?)";
-
         try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                PreparedStatement pstmt = conn.prepareStatement(INSERT_LINE_ITEM, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setInt(1, reservationService.getReservation().getId());
-            pstmt.setInt(2, reservationService.getService().getId());
-            pstmt.setInt(3, reservationService.getQuantity());
-            pstmt.setTimestamp(4, Timestamp.valueOf(reservationService.getDateRequested()));
-            pstmt.setString(5, reservationService.getStatus());
-            pstmt.setDouble(6, reservationService.getTotalPrice());
-            pstmt.setString(7, reservationService.getNotes());
+            bindLineItem(pstmt, reservationService);
 
             int result = pstmt.executeUpdate();
 
@@ -72,19 +70,10 @@ public class ReservationServiceDAO {
     }
 
     public boolean updateReservationService(ReservationService reservationService) {
-        String query = "UPDATE reservation_services SET reservation_id=?, service_id=?, quantity=?, " +
-                "date_requested=?, status=?, total_price=?, notes=? WHERE id=?";
-
         try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+                PreparedStatement pstmt = conn.prepareStatement(UPDATE_LINE_ITEM)) {
 
-            pstmt.setInt(1, reservationService.getReservation().getId());
-            pstmt.setInt(2, reservationService.getService().getId());
-            pstmt.setInt(3, reservationService.getQuantity());
-            pstmt.setTimestamp(4, Timestamp.valueOf(reservationService.getDateRequested()));
-            pstmt.setString(5, reservationService.getStatus());
-            pstmt.setDouble(6, reservationService.getTotalPrice());
-            pstmt.setString(7, reservationService.getNotes());
+            bindLineItem(pstmt, reservationService);
             pstmt.setInt(8, reservationService.getId());
 
             return pstmt.executeUpdate() > 0;
@@ -94,6 +83,42 @@ public class ReservationServiceDAO {
         return false;
     }
 
+    // Batched insert of many line items in one transaction; generated ids are set on the items
+    public boolean addAll(List<ReservationService> reservationServices) {
+        try {
+            BatchWriter.insertAll(dbManager, INSERT_LINE_ITEM, reservationServices,
+                    ReservationServiceDAO::bindLineItem, ReservationService::setId);
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    public boolean updateAll(List<ReservationService> reservationServices) {
+        try {
+            BatchWriter.updateAll(dbManager, UPDATE_LINE_ITEM, reservationServices, (pstmt, reservationService) -> {
+                bindLineItem(pstmt, reservationService);
+                pstmt.setInt(8, reservationService.getId());
+            });
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static void bindLineItem(PreparedStatement pstmt, ReservationService reservationService)
+            throws SQLException {
+        pstmt.setInt(1, reservationService.getReservation().getId());
+        pstmt.setInt(2, reservationService.getService().getId());
+        pstmt.setInt(3, reservationService.getQuantity());
+        pstmt.setTimestamp(4, Timestamp.valueOf(reservationService.getDateRequested()));
+        pstmt.setString(5, reservationService.getStatus());
+        pstmt.setDouble(6, reservationService.getTotalPrice());
+        pstmt.setString(7, reservationService.getNotes());
+    }
+
     public boolean deleteReservationService(int id) {
         String query = "DELETE FROM reservation_services WHERE id=?";
 
@@ -109,7 +134,7 @@ public class ReservationServiceDAO {
     }
 
     public ObservableList<ReservationService> getServicesByReservation(int reservationId) {
-        ObservableList<ReservationService> reservationServices = FXCollections.observableArrayList();
+        List<LineItemRow> rows = new ArrayList<>();
         String query = "SELECT * FROM reservation_services WHERE reservation_id=?";
 
         try (Connection conn = dbManager.getConnection();
@@ -119,15 +144,12 @@ public class ReservationServiceDAO {
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                ReservationService rsvc = createReservationServiceFromResultSet(rs);
-                if (rsvc != null) {
-                    reservationServices.add(rsvc);
-                }
+                rows.add(new LineItemRow(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return reservationServices;
+        return hydrate(rows);
     }
 
     public double getTotalServiceCharges(int reservationId) {
@@ -149,28 +171,63 @@ public class ReservationServiceDAO {
         return 0.0;
     }
 
-    private ReservationService createReservationServiceFromResultSet(ResultSet rs) throws SQLException {
-        int reservationId = rs.getInt("reservation_id");
-        int serviceId = rs.getInt("service_id");
+    // Resolves reservations and services once per distinct id instead of once per line item
+    private ObservableList<ReservationService> hydrate(List<LineItemRow> rows) {
+        ObservableList<ReservationService> reservationServices = FXCollections.observableArrayList();
+        if (rows.isEmpty()) {
+            return reservationServices;
+        }
 
-        Reservation reservation = reservationDAO.getReservationById(reservationId);
-        Service service = serviceDAO.getServiceById(serviceId);
+        Set<Integer> reservationIds = new HashSet<>();
+        Set<Integer> serviceIds = new HashSet<>();
+        for (LineItemRow row : rows) {
+            reservationIds.add(row.reservationId);
+            serviceIds.add(row.serviceId);
+        }
+
+        Map<Integer, Reservation> reservations = reservationDAO.getReservationsByIds(reservationIds);
+        Map<Integer, Service> services = serviceDAO.getServicesByIds(serviceIds);
+
+        for (LineItemRow row : rows) {
+            Reservation reservation = reservations.get(row.reservationId);
+            Service service = services.get(row.serviceId);
+            if (reservation == null || service == null) {
+                continue;
+            }
 
-        if (reservation == null || service == null) {
-            return null;
+            reservationServices.add(new ReservationService(
+                    row.id,
+                    reservation,
+                    service,
+                    row.quantity,
+                    row.dateRequested,
+                    row.status,
+                    row.totalPrice,
+                    row.notes));
         }
+        return reservationServices;
+    }
 
-        Timestamp ts = rs.getTimestamp("date_requested");
-        LocalDateTime dateRequested = ts != null ? ts.toLocalDateTime() : LocalDateTime.now();
-
-        return new ReservationService(
-                rs.getInt("id"),
-                reservation,
-                service,
-                rs.getInt("quantity"),
-                dateRequested,
-                rs.getString("status"),
-                rs.getDouble("total_price"),
-                rs.getString("notes"));
+    private static class LineItemRow {
+        private final int id;
+        private final int reservationId;
+        private final int serviceId;
+        private final int quantity;
+        private final LocalDateTime dateRequested;
+        private final String status;
+        private final double totalPrice;
+        private final String notes;
+
+        private LineItemRow(ResultSet rs) throws SQLException {
+            this.id = rs.getInt("id");
+            this.reservationId = rs.getInt("reservation_id");
+            this.serviceId = rs.getInt("service_id");
+            this.quantity = rs.getInt("quantity");
+            Timestamp ts = rs.getTimestamp("date_requested");
+            this.dateRequested = ts != null ? ts.toLocalDateTime() : LocalDateTime.now();
+            this.status = rs.getString("status");
+            this.totalPrice = rs.getDouble("total_price");
+            this.notes = rs.getString("notes");
+        }
     }
 }
@@ -0,0 +1,138 @@
+package com.hotel.dao;
+
+import com.hotel.model.Room;
+import com.hotel.model.RoomStatus;
+import com.hotel.model.RoomType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-process copy of the rooms table keyed by room number, with secondary indexes by type and
+// status. RoomDAO fills it from one full read and keeps it current on every write. Callers always
+// get copies, since controllers edit Room objects before the write that may still fail.
+class RoomCache {
+    // Bounds how long changes made by other clients can go unseen
+    private static final long MAX_AGE_MS = 5 * 60 * 1000;
+
+    private final Map<String, Room> byNumber = new TreeMap<>();
+    private final Map<RoomType, Set<String>> byType = new EnumMap<>(RoomType.class);
+    private final Map<RoomStatus, Set<String>> byStatus = new EnumMap<>(RoomStatus.class);
+    private long loadedAt = -1;
+    // Bumped by every write, so a full load can tell whether a write landed while it was reading
+    private long generation = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    synchronized boolean isFresh() {
+        return loadedAt >= 0 && System.currentTimeMillis() - loadedAt < MAX_AGE_MS;
+    }
+
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    // Installs a full snapshot read after getGeneration() returned readGeneration. If a write went
+    // into the cache meanwhile, the snapshot may predate it and is dropped; returns false then.
+    synchronized boolean replaceAll(Collection<Room> rooms, long readGeneration) {
+        if (generation != readGeneration) {
+            return false;
+        }
+        byNumber.clear();
+        byType.clear();
+        byStatus.clear();
+        for (Room room : rooms) {
+            index(copyOf(room));
+        }
+        loadedAt = System.currentTimeMillis();
+        return true;
+    }
+
+    synchronized void invalidate() {
+        loadedAt = -1;
+    }
+
+    synchronized void put(Room room) {
+        generation++;
+        unindex(room.getRoomNumber());
+        index(copyOf(room));
+    }
+
+    synchronized void remove(String roomNumber) {
+        generation++;
+        unindex(roomNumber);
+    }
+
+    synchronized void updateStatus(String roomNumber, RoomStatus status) {
+        Room cached = byNumber.get(roomNumber);
+        if (cached != null) {
+            Room updated = copyOf(cached);
+            updated.setStatus(status);
+            put(updated);
+        }
+    }
+
+    synchronized Room get(String roomNumber) {
+        Room room = byNumber.get(roomNumber);
+        return room != null ? copyOf(room) : null;
+    }
+
+    synchronized List<Room> getAll() {
+        return copies(byNumber.keySet());
+    }
+
+    synchronized List<Room> getByType(RoomType type) {
+        return copies(byType.getOrDefault(type, Set.of()));
+    }
+
+    synchronized List<Room> getByStatus(RoomStatus status) {
+        return copies(byStatus.getOrDefault(status, Set.of()));
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    synchronized CacheStats getStats() {
+        return new CacheStats("rooms", byNumber.size(), hits.get(), misses.get());
+    }
+
+    private void index(Room room) {
+        byNumber.put(room.getRoomNumber(), room);
+        byType.computeIfAbsent(room.getType(), k -> new TreeSet<>()).add(room.getRoomNumber());
+        byStatus.computeIfAbsent(room.getStatus(), k -> new TreeSet<>()).add(room.getRoomNumber());
+    }
+
+    private void unindex(String roomNumber) {
+        Room old = byNumber.remove(roomNumber);
+        if (old != null) {
+            byType.get(old.getType()).remove(roomNumber);
+            byStatus.get(old.getStatus()).remove(roomNumber);
+        }
+    }
+
+    // Room numbers are kept sorted, matching the ORDER BY room_number of the old queries
+    private List<Room> copies(Collection<String> roomNumbers) {
+        List<Room> rooms = new ArrayList<>(roomNumbers.size());
+        for (String roomNumber : roomNumbers) {
+            rooms.add(copyOf(byNumber.get(roomNumber)));
+        }
+        return rooms;
+    }
+
+    private static Room copyOf(Room room) {
+        return new Room(room.getRoomNumber(), room.getType(), room.getStatus(),
+                room.getPricePerNight(), room.getDescription(), room.getMaxOccupancy());
+    }
+}
@@ -4,57 +4,99 @@ import com.hotel.model.Room;
 import com.hotel.model.RoomStatus;
 import com.hotel.model.RoomType;
 import com.hotel.service.DatabaseManager;
+import com.hotel.service.UnitOfWork;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.sql.*;
-
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Room reads are served from an in-process RoomCache filled by one full read of the table;
+// every write below updates the cache once the database has accepted it.
 public class RoomDAO {
+    private static final String INSERT_ROOM = "INSERT INTO rooms (room_number, type, status, price_per_night, " +
+            "description, max_occupancy) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_ROOM = "UPDATE rooms SET type=?, status=?, price_per_night=?, " +
+            "description=?, max_occupancy=? WHERE room_number=?";
+
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
     private final DatabaseManager dbManager;
+    private final RoomCache cache = new RoomCache();
 
-    public RoomDAO() {
-        this.dbManager = DatabaseManager.getInstance();
+    public RoomDAO(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
     }
 
     public ObservableList<Room> getAllRooms() {
-        ObservableList<Room> rooms = FXCollections.observableArrayList();
-        String query = "SELECT * FROM rooms ORDER BY room_number";
+        if (!ensureCached()) {
+            return FXCollections.observableArrayList();
+        }
+        return FXCollections.observableArrayList(cache.getAll());
+    }
 
-        try (Connection conn = dbManager.getConnection();
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery(query)) {
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
 
-            while (rs.next()) {
-                Room room = new Room(
-                        rs.getString("room_number"),
-                        RoomType.valueOf(rs.getString("type")),
-                        RoomStatus.valueOf(rs.getString("status")),
-                        rs.getDouble("price_per_night"),
-                        rs.getString("description"),
-                        rs.getInt("max_occupancy"));
-                rooms.add(room);
+    // Forces the next read to go back to the database, e.g. after rooms were edited elsewhere
+    public void invalidateCache() {
+        cache.invalidate();
+    }
+
+    private boolean ensureCached() {
+        if (cache.isFresh()) {
+            cache.recordHit();
+            return true;
+        }
+        cache.recordMiss();
+
+        String query = "SELECT * FROM rooms";
+        try (Connection conn = dbManager.getConnection();
+                Statement stmt = conn.createStatement()) {
+
+            // A write committed during the read may be missing from the snapshot, so the load is
+            // repeated; if writes keep racing it, the cache stays stale and the next read tries again
+            for (int attempt = 0; attempt < MAX_LOAD_ATTEMPTS; attempt++) {
+                long generation = cache.getGeneration();
+                List<Room> rooms = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery(query)) {
+                    while (rs.next()) {
+                        rooms.add(new Room(
+                                rs.getString("room_number"),
+                                RoomType.valueOf(rs.getString("type")),
+                                RoomStatus.valueOf(rs.getString("status")),
+                                rs.getDouble("price_per_night"),
+                                rs.getString("description"),
+                                rs.getInt("max_occupancy")));
+                    }
+                }
+                if (cache.replaceAll(rooms, generation)) {
+                    break;
+                }
             }
+            return true;
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return rooms;
+        return false;
     }
 
     public boolean addRoom(Room room) {
-        String query = "INSERT INTO rooms (room_number, type, status, price_per_night, description, max_occupancy) " +
-                "VALUES (?, ?, ?, ?, ?, ?)";
-
         try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+                PreparedStatement pstmt = conn.prepareStatement(INSERT_ROOM)) {
 
-            pstmt.setString(1, room.getRoomNumber());
-            pstmt.setString(2, room.getType().name());
-            pstmt.setString(3, room.getStatus().name());
-            pstmt.setDouble(4, room.getPricePerNight());
-            pstmt.setString(5, room.getDescription());
-            pstmt.setInt(6, room.getMaxOccupancy());
+            bindInsert(pstmt, room);
 
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                cache.put(room);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -62,62 +104,115 @@ public class RoomDAO {
     }
 
     public boolean updateRoom(Room room) {
-        String query = "UPDATE rooms SET type=?, status=?, price_per_night=?, description=?, " +
-                "max_occupancy=? WHERE room_number=?";
-
         try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+                PreparedStatement pstmt = conn.prepareStatement(UPDATE_ROOM)) {
 
-            pstmt.setString(1, room.getType().name());
-            pstmt.setString(2, room.getStatus().name());
-            pstmt.setDouble(3, room.getPricePerNight());
-            pstmt.setString(4, room.getDescription());
-            pstmt.setInt(5, room.getMaxOccupancy());
-            pstmt.setString(6, room.getRoomNumber());
+            bindUpdate(pstmt, room);
 
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                cache.put(room);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return false;
     }
 
-    public boolean deleteRoom(String roomNumber) {
-        String query = "DELETE FROM rooms WHERE room_number=?";
+    // Batched insert of many rooms in one transaction
+    public boolean addAll(List<Room> rooms) {
+        try {
+            insertAll(rooms);
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
 
-        try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+    // Like addAll, but reports why the batch failed
+    public void insertAll(List<Room> rooms) throws SQLException {
+        BatchWriter.insertAll(dbManager, INSERT_ROOM, rooms, RoomDAO::bindInsert, null);
+        rooms.forEach(cache::put);
+    }
 
-            pstmt.setString(1, roomNumber);
-            return pstmt.executeUpdate() > 0;
+    // Which of the given room numbers are already taken. Reads the table rather than the cache, which
+    // may be stale and matches case-sensitively where the primary key does not.
+    public Set<String> findExistingRoomNumbers(Collection<String> roomNumbers) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        if (roomNumbers.isEmpty()) {
+            return existing;
+        }
+
+        try (Connection conn = dbManager.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("Database unavailable", "08001");
+            }
+            for (List<String> chunk : InClause.chunks(roomNumbers)) {
+                String query = "SELECT room_number FROM rooms WHERE room_number IN (" +
+                        InClause.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setString(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        existing.add(rs.getString("room_number"));
+                    }
+                }
+            }
+        }
+        return existing;
+    }
+
+    public boolean updateAll(List<Room> rooms) {
+        try {
+            BatchWriter.updateAll(dbManager, UPDATE_ROOM, rooms, RoomDAO::bindUpdate);
         } catch (SQLException e) {
             e.printStackTrace();
+            return false;
         }
-        return false;
+        rooms.forEach(cache::put);
+        return true;
     }
 
-    public Room getRoomByNumber(String roomNumber) {
-        String query = "SELECT * FROM rooms WHERE room_number=?";
+    private static void bindInsert(PreparedStatement pstmt, Room room) throws SQLException {
+        pstmt.setString(1, room.getRoomNumber());
+        pstmt.setString(2, room.getType().name());
+        pstmt.setString(3, room.getStatus().name());
+        pstmt.setDouble(4, room.getPricePerNight());
+        pstmt.setString(5, room.getDescription());
+        pstmt.setInt(6, room.getMaxOccupancy());
+    }
+
+    private static void bindUpdate(PreparedStatement pstmt, Room room) throws SQLException {
+        pstmt.setString(1, room.getType().name());
+        pstmt.setString(2, room.getStatus().name());
+        pstmt.setDouble(3, room.getPricePerNight());
+        pstmt.setString(4, room.getDescription());
+        pstmt.setInt(5, room.getMaxOccupancy());
+        pstmt.setString(6, room.getRoomNumber());
+    }
+
+    public boolean deleteRoom(String roomNumber) {
+        String query = "DELETE FROM rooms WHERE room_number=?";
 
         try (Connection conn = dbManager.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
 
             pstmt.setString(1, roomNumber);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                return new Room(
-                        rs.getString("room_number"),
-                        RoomType.valueOf(rs.getString("type")),
-                        RoomStatus.valueOf(rs.getString("status")),
-                        rs.getDouble("price_per_night"),
-                        rs.getString("description"),
-                        rs.getInt("max_occupancy"));
+            if (pstmt.executeUpdate() > 0) {
+                cache.remove(roomNumber);
+                return true;
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return null;
+        return false;
+    }
+
+    public Room getRoomByNumber(String roomNumber) {
+        return ensureCached() ? cache.get(roomNumber) : null;
     }
 
     public boolean updateRoomStatus(String roomNumber, RoomStatus newStatus) {
@@ -129,47 +224,68 @@ public class RoomDAO {
             pstmt.setString(1, newStatus.name());
             pstmt.setString(2, roomNumber);
 
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                cache.updateStatus(roomNumber, newStatus);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return false;
     }
 
-    public ObservableList<Room> getRoomsByStatus(RoomStatus status) {
-        ObservableList<Room> rooms = FXCollections.observableArrayList();
-        String query = "SELECT * FROM rooms WHERE status=? ORDER BY room_number";
-
-        try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
-
-            pstmt.setString(1, status.name());
-            ResultSet rs = pstmt.executeQuery();
+    // Transactional form of updateRoomStatus; the room and the cache follow once the work commits
+    public void updateRoomStatus(UnitOfWork work, Room room, RoomStatus newStatus) throws SQLException {
+        work.batch("UPDATE rooms SET status=? WHERE room_number=?", pstmt -> {
+            pstmt.setString(1, newStatus.name());
+            pstmt.setString(2, room.getRoomNumber());
+        });
+        work.afterCommit(() -> {
+            room.setStatus(newStatus);
+            cache.updateStatus(room.getRoomNumber(), newStatus);
+        });
+    }
 
-            while (rs.next()) {
-                Room room = new Room(
-                        rs.getString("room_number"),
-                        RoomType.valueOf(rs.getString("type")),
-                        RoomStatus.valueOf(rs.getString("status")),
-                        rs.getDouble("price_per_night"),
-                        rs.getString("description"),
-                        rs.getInt("max_occupancy"));
-                rooms.add(room);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+    public ObservableList<Room> getRoomsByStatus(RoomStatus status) {
+        if (!ensureCached()) {
+            return FXCollections.observableArrayList();
         }
-        return rooms;
+        return FXCollections.observableArrayList(cache.getByStatus(status));
     }
 
     public ObservableList<Room> getRoomsByType(RoomType type) {
+        if (!ensureCached()) {
+            return FXCollections.observableArrayList();
+        }
+        return FXCollections.observableArrayList(cache.getByType(type));
+    }
+
+    // Rooms free for the whole stay [checkIn, checkOut), cheapest first. A single anti-join against
+    // the blocking reservations replaces probing each room with isRoomAvailable.
+    // type may be null for any type; ignoredReservationId lets an edited booking keep its own room.
+    public ObservableList<Room> findAvailableRooms(LocalDate checkIn, LocalDate checkOut, RoomType type,
+            int minOccupancy, int ignoredReservationId) {
         ObservableList<Room> rooms = FXCollections.observableArrayList();
-        String query = "SELECT * FROM rooms WHERE type=? ORDER BY room_number";
+        String query = "SELECT rm.* FROM rooms rm " +
+                "WHERE rm.status <> 'MAINTENANCE' AND rm.max_occupancy >= ? " +
+                (type != null ? "AND rm.type = ? " : "") +
+                "AND NOT EXISTS (SELECT 1 FROM reservations r " +
+                "WHERE r.room_number = rm.room_number " +
+                "AND r.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') " +
+                "AND r.id <> ? AND r.check_in_date < ? AND r.check_out_date > ?) " +
+                "ORDER BY rm.price_per_night, rm.room_number";
 
         try (Connection conn = dbManager.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-            pstmt.setString(1, type.name());
+            int index = 1;
+            pstmt.setInt(index++, minOccupancy);
+            if (type != null) {
+                pstmt.setString(index++, type.name());
+            }
+            pstmt.setInt(index++, ignoredReservationId);
+            pstmt.setDate(index++, Date.valueOf(checkOut));
+            pstmt.setDate(index, Date.valueOf(checkIn));
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
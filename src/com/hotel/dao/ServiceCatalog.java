@@ -0,0 +1,115 @@
+package com.hotel.dao;
+
+import com.hotel.model.Service;
+import com.hotel.model.ServiceCategory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Whole services table held in memory, partitioned by category with a separate active-only
+// partition. The catalog is small and changes rarely, so every write simply re-sorts the partitions.
+class ServiceCatalog {
+    // Picks up edits made by other clients; local writes are applied immediately
+    private static final long MAX_AGE_MS = 30 * 60 * 1000;
+
+    // Same order as the old "ORDER BY category, name" queries
+    private static final Comparator<Service> BY_NAME = Comparator
+            .comparing(Service::getName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingInt(Service::getId);
+
+    private final Map<Integer, Service> byId = new HashMap<>();
+    private final Map<ServiceCategory, List<Service>> byCategory = new EnumMap<>(ServiceCategory.class);
+    private final Map<ServiceCategory, List<Service>> activeByCategory = new EnumMap<>(ServiceCategory.class);
+    private long loadedAt = -1;
+
+    private long hits;
+    private long misses;
+
+    synchronized boolean isFresh() {
+        return loadedAt >= 0 && System.currentTimeMillis() - loadedAt < MAX_AGE_MS;
+    }
+
+    synchronized void replaceAll(Collection<Service> services) {
+        byId.clear();
+        for (Service service : services) {
+            byId.put(service.getId(), copyOf(service));
+        }
+        repartition();
+        loadedAt = System.currentTimeMillis();
+    }
+
+    synchronized void invalidate() {
+        loadedAt = -1;
+    }
+
+    synchronized void put(Service service) {
+        byId.put(service.getId(), copyOf(service));
+        repartition();
+    }
+
+    synchronized void remove(int serviceId) {
+        if (byId.remove(serviceId) != null) {
+            repartition();
+        }
+    }
+
+    synchronized Service get(int serviceId) {
+        Service service = byId.get(serviceId);
+        return service != null ? copyOf(service) : null;
+    }
+
+    synchronized List<Service> getAll(boolean activeOnly) {
+        List<Service> services = new ArrayList<>();
+        for (List<Service> partition : (activeOnly ? activeByCategory : byCategory).values()) {
+            addCopies(services, partition);
+        }
+        return services;
+    }
+
+    synchronized List<Service> getByCategory(ServiceCategory category) {
+        List<Service> services = new ArrayList<>();
+        addCopies(services, byCategory.getOrDefault(category, List.of()));
+        return services;
+    }
+
+    synchronized void recordHit() {
+        hits++;
+    }
+
+    synchronized void recordMiss() {
+        misses++;
+    }
+
+    synchronized CacheStats getStats() {
+        return new CacheStats("services", byId.size(), hits, misses);
+    }
+
+    private void repartition() {
+        byCategory.clear();
+        activeByCategory.clear();
+        for (Service service : byId.values()) {
+            byCategory.computeIfAbsent(service.getCategory(), k -> new ArrayList<>()).add(service);
+            if (service.isActive()) {
+                activeByCategory.computeIfAbsent(service.getCategory(), k -> new ArrayList<>()).add(service);
+            }
+        }
+        byCategory.values().forEach(partition -> partition.sort(BY_NAME));
+        activeByCategory.values().forEach(partition -> partition.sort(BY_NAME));
+    }
+
+    private static void addCopies(List<Service> target, List<Service> source) {
+        for (Service service : source) {
+            target.add(copyOf(service));
+        }
+    }
+
+    private static Service copyOf(Service service) {
+        return new Service(service.getId(), service.getName(), service.getDescription(),
+                service.getPrice(), service.getCategory(), service.isActive());
+    }
+}
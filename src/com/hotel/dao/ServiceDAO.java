@@ -7,74 +7,84 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 import java.sql.*;
-
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// All reads are answered from an in-memory ServiceCatalog loaded with one query; writes update it
+// once the database has accepted them.
 public class ServiceDAO {
+    private static final String INSERT_SERVICE = "INSERT INTO services (name, description, price, category, " +
+            "is_active) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_SERVICE = "UPDATE services SET name=?, description=?, price=?, " +
+            "category=?, is_active=? WHERE id=?";
+
     private final DatabaseManager dbManager;
+    private final ServiceCatalog catalog = new ServiceCatalog();
 
-    public ServiceDAO() {
-        this.dbManager = DatabaseManager.getInstance();
+    public ServiceDAO(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
     }
 
     public ObservableList<Service> getAllServices() {
-        ObservableList<Service> services = FXCollections.observableArrayList();
-        String query = "SELECT * FROM services ORDER BY category, name";
-
-        try (Connection conn = dbManager.getConnection();
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery(query)) {
-
-            while (rs.next()) {
-                Service service = new Service(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("description"),
-                        rs.getDouble("price"),
-                        ServiceCategory.valueOf(rs.getString("category")),
-                        rs.getBoolean("is_active"));
-                services.add(service);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        if (!ensureLoaded()) {
+            return FXCollections.observableArrayList();
         }
-        return services;
+        return FXCollections.observableArrayList(catalog.getAll(false));
     }
 
     public ObservableList<Service> getActiveServices() {
-        ObservableList<Service> services = FXCollections.observableArrayList();
-        String query = "SELECT * FROM services WHERE is_active=TRUE ORDER BY category, name";
+        if (!ensureLoaded()) {
+            return FXCollections.observableArrayList();
+        }
+        return FXCollections.observableArrayList(catalog.getAll(true));
+    }
 
+    public CacheStats getCacheStats() {
+        return catalog.getStats();
+    }
+
+    public void invalidateCache() {
+        catalog.invalidate();
+    }
+
+    private boolean ensureLoaded() {
+        if (catalog.isFresh()) {
+            catalog.recordHit();
+            return true;
+        }
+        catalog.recordMiss();
+
+        String query = "SELECT * FROM services";
         try (Connection conn = dbManager.getConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(query)) {
 
+            List<Service> services = new ArrayList<>();
             while (rs.next()) {
-                Service service = new Service(
+                services.add(new Service(
                         rs.getInt("id"),
                         rs.getString("name"),
                         rs.getString("description"),
                         rs.getDouble("price"),
                         ServiceCategory.valueOf(rs.getString("category")),
-                        rs.getBoolean("is_active"));
-                services.add(service);
+                        rs.getBoolean("is_active")));
             }
+            catalog.replaceAll(services);
+            return true;
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return services;
+        return false;
     }
 
     public boolean addService(Service service) {
-        String query = "INSERT INTO services (name, description, price, category, is_active) " +
-                "VALUES (?, ?, ?, ?, ?)";
-
         try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                PreparedStatement pstmt = conn.prepareStatement(INSERT_SERVICE, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setString(1, service.getName());
-            pstmt.setString(2, service.getDescription());
-            pstmt.setDouble(3, service.getPrice());
-            pstmt.setString(4, service.getCategory().name());
-            pstmt.setBoolean(5, service.isActive());
+            bindService(pstmt, service);
 
             int result = pstmt.executeUpdate();
 
@@ -83,6 +93,7 @@ public class ServiceDAO {
                 if (rs.next()) {
                     service.setId(rs.getInt(1));
                 }
+                catalog.put(service);
                 return true;
             }
         } catch (SQLException e) {
@@ -92,86 +103,138 @@ public class ServiceDAO {
     }
 
     public boolean updateService(Service service) {
-        String query = "UPDATE services SET name=?, description=?, price=?, category=?, is_active=? WHERE id=?";
-
         try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+                PreparedStatement pstmt = conn.prepareStatement(UPDATE_SERVICE)) {
 
-            pstmt.setString(1, service.getName());
-            pstmt.setString(2, service.getDescription());
-            pstmt.setDouble(3, service.getPrice());
-            pstmt.setString(4, service.getCategory().name());
-            pstmt.setBoolean(5, service.isActive());
+            bindService(pstmt, service);
             pstmt.setInt(6, service.getId());
 
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                catalog.put(service);
+                return true;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return false;
     }
 
-    public boolean deleteService(int serviceId) {
-        String query = "DELETE FROM services WHERE id=?";
+    // Batched insert of many services in one transaction; generated ids are set on the services
+    public boolean addAll(List<Service> services) {
+        try {
+            insertAll(services);
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
 
-        try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+    // Like addAll, but reports why the batch failed
+    public void insertAll(List<Service> services) throws SQLException {
+        BatchWriter.insertAll(dbManager, INSERT_SERVICE, services, ServiceDAO::bindService, Service::setId);
+        services.forEach(catalog::put);
+    }
 
-            pstmt.setInt(1, serviceId);
-            return pstmt.executeUpdate() > 0;
+    public boolean updateAll(List<Service> services) {
+        try {
+            BatchWriter.updateAll(dbManager, UPDATE_SERVICE, services, (pstmt, service) -> {
+                bindService(pstmt, service);
+                pstmt.setInt(6, service.getId());
+            });
         } catch (SQLException e) {
             e.printStackTrace();
+            return false;
         }
-        return false;
+        services.forEach(catalog::put);
+        return true;
     }
 
-    public Service getServiceById(int id) {
-        String query = "SELECT * FROM services WHERE id=?";
+    private static void bindService(PreparedStatement pstmt, Service service) throws SQLException {
+        pstmt.setString(1, service.getName());
+        pstmt.setString(2, service.getDescription());
+        pstmt.setDouble(3, service.getPrice());
+        pstmt.setString(4, service.getCategory().name());
+        pstmt.setBoolean(5, service.isActive());
+    }
+
+    public boolean deleteService(int serviceId) {
+        String query = "DELETE FROM services WHERE id=?";
 
         try (Connection conn = dbManager.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                return new Service(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("description"),
-                        rs.getDouble("price"),
-                        ServiceCategory.valueOf(rs.getString("category")),
-                        rs.getBoolean("is_active"));
+            pstmt.setInt(1, serviceId);
+            if (pstmt.executeUpdate() > 0) {
+                catalog.remove(serviceId);
+                return true;
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return null;
+        return false;
     }
 
-    public ObservableList<Service> getServicesByCategory(ServiceCategory category) {
-        ObservableList<Service> services = FXCollections.observableArrayList();
-        String query = "SELECT * FROM services WHERE category=? ORDER BY name";
+    public Service getServiceById(int id) {
+        return getServicesByIds(List.of(id)).get(id);
+    }
 
-        try (Connection conn = dbManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+    // Line items resolve their services here; only ids unknown to the catalog (e.g. just added by
+    // another client) cost a query
+    public Map<Integer, Service> getServicesByIds(Collection<Integer> ids) {
+        Map<Integer, Service> services = new HashMap<>();
+        if (ids.isEmpty()) {
+            return services;
+        }
 
-            pstmt.setString(1, category.name());
-            ResultSet rs = pstmt.executeQuery();
+        List<Integer> missing = new ArrayList<>();
+        if (ensureLoaded()) {
+            for (Integer id : ids) {
+                Service service = catalog.get(id);
+                if (service != null) {
+                    services.put(id, service);
+                } else {
+                    missing.add(id);
+                }
+            }
+        } else {
+            missing.addAll(ids);
+        }
+        if (missing.isEmpty()) {
+            return services;
+        }
 
-            while (rs.next()) {
-                Service service = new Service(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("description"),
-                        rs.getDouble("price"),
-                        ServiceCategory.valueOf(rs.getString("category")),
-                        rs.getBoolean("is_active"));
-                services.add(service);
+        try (Connection conn = dbManager.getConnection()) {
+            for (List<Integer> chunk : InClause.chunks(missing)) {
+                String query = "SELECT * FROM services WHERE id IN (" + InClause.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        Service service = new Service(
+                                rs.getInt("id"),
+                                rs.getString("name"),
+                                rs.getString("description"),
+                                rs.getDouble("price"),
+                                ServiceCategory.valueOf(rs.getString("category")),
+                                rs.getBoolean("is_active"));
+                        services.put(service.getId(), service);
+                        catalog.put(service);
+                    }
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return services;
     }
+
+    public ObservableList<Service> getServicesByCategory(ServiceCategory category) {
+        if (!ensureLoaded()) {
+            return FXCollections.observableArrayList();
+        }
+        return FXCollections.observableArrayList(catalog.getByCategory(category));
+    }
 }
@@ -0,0 +1,132 @@
+package com.hotel.dao;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Turns any combination of optional filters into the WHERE / ORDER BY / LIMIT tail of a single
+// prepared statement. Column names only ever come from DAO constants; every value is a parameter.
+final class SqlCriteria {
+    private final List<String> conditions = new ArrayList<>();
+    private final List<Object> params = new ArrayList<>();
+    private String orderBy = "";
+    private Integer limit;
+
+    // Null values are skipped, so callers can pass optional filters straight through
+    SqlCriteria equal(String column, Object value) {
+        return compare(column, "=", value);
+    }
+
+    SqlCriteria atLeast(String column, Object value) {
+        return compare(column, ">=", value);
+    }
+
+    SqlCriteria before(String column, Object value) {
+        return compare(column, "<", value);
+    }
+
+    // Case-insensitive substring match on any of the columns
+    SqlCriteria contains(String term, String... columns) {
+        if (term == null || term.trim().isEmpty()) {
+            return this;
+        }
+        String pattern = "%" + escapeLike(term.trim()) + "%";
+        List<String> matches = new ArrayList<>();
+        for (String column : columns) {
+            matches.add(column + " LIKE ?");
+            params.add(pattern);
+        }
+        conditions.add("(" + String.join(" OR ", matches) + ")");
+        return this;
+    }
+
+    // Keyset position after the last row of the previous page for ORDER BY sortColumn, idColumn.
+    // With the id as tie-breaker the order is total, so no row is skipped or repeated.
+    SqlCriteria seekAfter(String sortColumn, Object sortValue, String idColumn, int id, boolean descending) {
+        String op = descending ? "<" : ">";
+        if (sortColumn.equals(idColumn)) {
+            conditions.add(idColumn + " " + op + " ?");
+            params.add(id);
+        } else {
+            conditions.add("(" + sortColumn + " " + op + " ? OR (" + sortColumn + " = ? AND " +
+                    idColumn + " " + op + " ?))");
+            params.add(sortValue);
+            params.add(sortValue);
+            params.add(id);
+        }
+        return this;
+    }
+
+    SqlCriteria orderBy(String sortColumn, String idColumn, boolean descending) {
+        String direction = descending ? " DESC" : " ASC";
+        orderBy = sortColumn.equals(idColumn)
+                ? idColumn + direction
+                : sortColumn + direction + ", " + idColumn + direction;
+        return this;
+    }
+
+    SqlCriteria limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    String toSql(String select) {
+        StringBuilder sql = new StringBuilder(select);
+        if (!conditions.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", conditions)).append(' ');
+        }
+        if (!orderBy.isEmpty()) {
+            sql.append("ORDER BY ").append(orderBy).append(' ');
+        }
+        if (limit != null) {
+            sql.append("LIMIT ?");
+        }
+        return sql.toString();
+    }
+
+    void bind(PreparedStatement pstmt) throws SQLException {
+        int index = 1;
+        for (Object param : params) {
+            pstmt.setObject(index++, toJdbc(param));
+        }
+        if (limit != null) {
+            pstmt.setInt(index, limit);
+        }
+    }
+
+    private SqlCriteria compare(String column, String op, Object value) {
+        if (value != null) {
+            conditions.add(column + " " + op + " ?");
+            params.add(value);
+        }
+        return this;
+    }
+
+    private static Object toJdbc(Object value) {
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        // Money columns are DECIMAL; an exact value keeps "amount = ?" in keyset seeks reliable
+        if (value instanceof Double) {
+            return BigDecimal.valueOf((Double) value);
+        }
+        if (value instanceof LocalDate) {
+            return Date.valueOf((LocalDate) value);
+        }
+        if (value instanceof LocalDateTime) {
+            return Timestamp.valueOf((LocalDateTime) value);
+        }
+        return value;
+    }
+
+    // MySQL's default LIKE escape character is the backslash
+    static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,63 @@
+package com.hotel.dao;
+
+import com.hotel.model.DashboardStatistics;
+import com.hotel.model.PaymentStatistics;
+import com.hotel.service.DatabaseManager;
+
+import java.sql.*;
+
+public class StatisticsDAO {
+    // All dashboard KPIs in a single round trip; nothing is materialized beyond the counts
+    private static final String DASHBOARD_QUERY = "SELECT " +
+            "(SELECT COUNT(*) FROM guests) AS total_guests, " +
+            "(SELECT COUNT(*) FROM rooms WHERE status='AVAILABLE') AS available_rooms, " +
+            "(SELECT COUNT(*) FROM reservations WHERE status IN ('CONFIRMED', 'CHECKED_IN')) AS active_reservations, " +
+            "(SELECT COALESCE(SUM(amount), 0) FROM payments WHERE status='COMPLETED') AS total_revenue";
+
+    // Totals for the payments view, which only holds one page of rows
+    private static final String PAYMENT_TOTALS_QUERY = "SELECT COUNT(*) AS total_payments, " +
+            "COALESCE(SUM(status='COMPLETED'), 0) AS completed_payments, " +
+            "COALESCE(SUM(CASE WHEN status='COMPLETED' THEN amount END), 0) AS total_revenue " +
+            "FROM payments";
+
+    private final DatabaseManager dbManager;
+
+    public StatisticsDAO(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    public DashboardStatistics getDashboardStatistics() {
+        try (Connection conn = dbManager.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(DASHBOARD_QUERY)) {
+
+            if (rs.next()) {
+                return new DashboardStatistics(
+                        rs.getInt("total_guests"),
+                        rs.getInt("available_rooms"),
+                        rs.getInt("active_reservations"),
+                        rs.getDouble("total_revenue"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    public PaymentStatistics getPaymentStatistics() {
+        try (Connection conn = dbManager.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(PAYMENT_TOTALS_QUERY)) {
+
+            if (rs.next()) {
+                return new PaymentStatistics(
+                        rs.getInt("total_payments"),
+                        rs.getInt("completed_payments"),
+                        rs.getDouble("total_revenue"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+}
@@ -7,8 +7,8 @@ import java.sql.*;
 public class UserDAO {
     private final DatabaseManager dbManager;
 
-    public UserDAO() {
-        this.dbManager = DatabaseManager.getInstance();
+    public UserDAO(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
         ensureUserTableExists();
     }
 
@@ -0,0 +1,8 @@
+-- Room availability: the NOT EXISTS probe in RoomDAO.findAvailableRooms, the availability
+-- index rebuild and ReservationDAO.getReservationsByRoom all seek on room_number and range on
+-- check_in_date; carrying check_out_date and status makes the overlap test index-only.
+CREATE INDEX idx_reservations_room_dates ON reservations (room_number, check_in_date, check_out_date, status);
+
+-- ReservationDAO.getReservationsByStatus (WHERE status=? ORDER BY check_in_date DESC)
+-- and the active-reservation counts on the dashboard.
+CREATE INDEX idx_reservations_status_checkin ON reservations (status, check_in_date);
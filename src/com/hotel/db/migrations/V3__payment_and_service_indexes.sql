@@ -0,0 +1,13 @@
+-- PaymentDAO.getPaymentsByReservation and the paid/unpaid checks (reservation_id=? AND status).
+CREATE INDEX idx_payments_reservation_status ON payments (reservation_id, status);
+
+-- Revenue totals (WHERE status='COMPLETED', SUM(amount)) read from the index alone.
+CREATE INDEX idx_payments_status_amount ON payments (status, amount);
+
+-- ReservationServiceDAO lookups by reservation and getTotalServiceCharges (status != 'CANCELLED').
+CREATE INDEX idx_reservation_services_reservation_status ON reservation_services (reservation_id, status);
+
+-- ServiceDAO.getServicesByCategory (WHERE category=? ORDER BY name)
+-- and getActiveServices (WHERE is_active=TRUE ORDER BY category, name).
+CREATE INDEX idx_services_category_name ON services (category, name);
+CREATE INDEX idx_services_active_category_name ON services (is_active, category, name);
@@ -0,0 +1,3 @@
+-- GuestDAO.searchGuests in "fulltext" mode (DatabaseConfig.getGuestSearchMode):
+-- MATCH (...) AGAINST (? IN BOOLEAN MODE) over the columns the guest search box covers.
+CREATE FULLTEXT INDEX ft_guests_search ON guests (first_name, last_name, email, phone, id_number);
@@ -0,0 +1,4 @@
+-- GuestDAO.findGuestSummaries: the reservation form's guest picker matches the typed text as a
+-- prefix of the first name, last name or id number (id_number is already UNIQUE, so indexed).
+CREATE INDEX idx_guests_last_first ON guests (last_name, first_name);
+CREATE INDEX idx_guests_first_last ON guests (first_name, last_name);
@@ -0,0 +1,26 @@
+-- One row per room per night held by a PENDING, CONFIRMED or CHECKED_IN reservation
+-- (RoomAvailabilityIndex.blocksRoom). The primary key makes a double booking impossible:
+-- of two desks booking the same room and night, the second insert fails and its transaction
+-- rolls back. Rows are written in the same transaction as the reservation itself.
+CREATE TABLE IF NOT EXISTS room_nights (
+    room_number VARCHAR(10) NOT NULL,
+    night DATE NOT NULL,
+    reservation_id INT NOT NULL,
+    PRIMARY KEY (room_number, night),
+    KEY idx_room_nights_reservation (reservation_id),
+    FOREIGN KEY (reservation_id) REFERENCES reservations(id) ON DELETE CASCADE,
+    FOREIGN KEY (room_number) REFERENCES rooms(room_number) ON UPDATE CASCADE
+);
+
+-- Existing bookings claim their nights; where old data already overlaps, the earlier
+-- reservation keeps the night. The recursion runs once per night of the longest stay, so the
+-- hint lifts MySQL's cte_max_recursion_depth (1000 by default) for this statement only.
+INSERT /*+ SET_VAR(cte_max_recursion_depth = 100000) */ IGNORE INTO room_nights (room_number, night, reservation_id)
+WITH RECURSIVE nights (reservation_id, room_number, night, check_out_date) AS (
+    SELECT id, room_number, check_in_date, check_out_date FROM reservations
+    WHERE status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') AND check_out_date > check_in_date
+    UNION ALL
+    SELECT reservation_id, room_number, night + INTERVAL 1 DAY, check_out_date FROM nights
+    WHERE night + INTERVAL 1 DAY < check_out_date
+)
+SELECT room_number, night, reservation_id FROM nights ORDER BY reservation_id, night;
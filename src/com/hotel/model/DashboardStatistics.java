@@ -0,0 +1,33 @@
+package com.hotel.model;
+
+public class DashboardStatistics {
+    private final int totalGuests;
+    private final int availableRooms;
+    private final int activeReservations;
+    private final double totalRevenue;
+
+    public DashboardStatistics(int totalGuests, int availableRooms, int activeReservations, double totalRevenue) {
+        this.totalGuests = totalGuests;
+        this.availableRooms = availableRooms;
+        this.activeReservations = activeReservations;
+        this.totalRevenue = totalRevenue;
+    }
+
+    public int getTotalGuests() {
+        return totalGuests;
+    }
+
+    public int getAvailableRooms() {
+        return availableRooms;
+    }
+
+    // Confirmed + checked-in reservations
+    public int getActiveReservations() {
+        return activeReservations;
+    }
+
+    // Sum of completed payments
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+}
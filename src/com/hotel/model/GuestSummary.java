@@ -0,0 +1,43 @@
+package com.hotel.model;
+
+// Read-only projection of a guest for pickers: just enough to show and identify the guest.
+// The full Guest is loaded by id once one is chosen.
+public class GuestSummary {
+    private final int id;
+    private final String firstName;
+    private final String lastName;
+    private final String idNumber;
+
+    public GuestSummary(int id, String firstName, String lastName, String idNumber) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.idNumber = idNumber;
+    }
+
+    public static GuestSummary of(Guest guest) {
+        return new GuestSummary(guest.getId(), guest.getFirstName(), guest.getLastName(), guest.getIdNumber());
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+
+    public String getIdNumber() {
+        return idNumber;
+    }
+
+    // The id number tells apart guests with the same name
+    public String getDisplayName() {
+        return idNumber == null || idNumber.isEmpty() ? getFullName() : getFullName() + " (" + idNumber + ")";
+    }
+
+    @Override
+    public String toString() {
+        return getDisplayName();
+    }
+}
@@ -0,0 +1,41 @@
+package com.hotel.model;
+
+// A checked-in or checked-out reservation that still has money owing: room total plus
+// non-cancelled service charges, minus completed payments.
+public class OutstandingReservation {
+    private final Reservation reservation;
+    private final double serviceCharges;
+    private final double amountPaid;
+
+    public OutstandingReservation(Reservation reservation, double serviceCharges, double amountPaid) {
+        this.reservation = reservation;
+        this.serviceCharges = serviceCharges;
+        this.amountPaid = amountPaid;
+    }
+
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+    public double getServiceCharges() {
+        return serviceCharges;
+    }
+
+    public double getAmountPaid() {
+        return amountPaid;
+    }
+
+    public double getAmountDue() {
+        return reservation.getTotalPrice() + serviceCharges;
+    }
+
+    public double getBalanceDue() {
+        return getAmountDue() - amountPaid;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d - %s - Room %s ($%.2f due)", reservation.getId(), reservation.getGuestName(),
+                reservation.getRoomNumber(), getBalanceDue());
+    }
+}
@@ -0,0 +1,26 @@
+package com.hotel.model;
+
+public class PaymentStatistics {
+    private final int totalPayments;
+    private final int completedPayments;
+    private final double totalRevenue;
+
+    public PaymentStatistics(int totalPayments, int completedPayments, double totalRevenue) {
+        this.totalPayments = totalPayments;
+        this.completedPayments = completedPayments;
+        this.totalRevenue = totalRevenue;
+    }
+
+    public int getTotalPayments() {
+        return totalPayments;
+    }
+
+    public int getCompletedPayments() {
+        return completedPayments;
+    }
+
+    // Sum of completed payments
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+}
@@ -0,0 +1,134 @@
+package com.hotel.service;
+
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Runs DAO work on a small pool of worker threads so the JavaFX thread never waits on the database.
+// Callbacks are delivered on the JavaFX thread by Task itself.
+public class BackgroundExecutor {
+    // Matches the connection pool: more workers would only queue on connections
+    private static final int WORKER_THREADS = 4;
+    private static final int QUEUE_CAPACITY = 64;
+
+    private static BackgroundExecutor instance;
+
+    private final ThreadPoolExecutor executor;
+    private final Set<Task<?>> viewTasks = ConcurrentHashMap.newKeySet();
+
+    private BackgroundExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread t = new Thread(r, "db-worker-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized BackgroundExecutor getInstance() {
+        if (instance == null) {
+            instance = new BackgroundExecutor();
+        }
+        return instance;
+    }
+
+    // Work that belongs to the current view; cancelled when the user navigates away
+    public <T> Task<T> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = createTask(work, onSuccess, onFailure);
+        viewTasks.add(task);
+        execute(task, onFailure);
+        return task;
+    }
+
+    // Application-level work that must survive navigation
+    public <T> Task<T> submitDetached(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = createTask(work, onSuccess, onFailure);
+        execute(task, onFailure);
+        return task;
+    }
+
+    // A write the user started. It runs detached, so leaving the view cannot interrupt it halfway, and
+    // the controls that started it stay disabled until it has finished so it cannot be sent twice.
+    public <T> Task<T> submitWrite(Node controls, Callable<T> work, Consumer<T> onSuccess,
+            Consumer<Throwable> onFailure) {
+        controls.setDisable(true);
+        return submitDetached(work,
+                result -> {
+                    controls.setDisable(false);
+                    if (onSuccess != null) {
+                        onSuccess.accept(result);
+                    }
+                },
+                error -> {
+                    controls.setDisable(false);
+                    if (onFailure != null) {
+                        onFailure.accept(error);
+                    }
+                });
+    }
+
+    public void cancelViewTasks() {
+        List<Task<?>> pending = new ArrayList<>(viewTasks);
+        viewTasks.clear();
+        for (Task<?> task : pending) {
+            task.cancel(true);
+        }
+        executor.purge();
+    }
+
+    public void shutdown() {
+        cancelViewTasks();
+        executor.shutdownNow();
+    }
+
+    private <T> Task<T> createTask(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<T>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+
+        task.setOnSucceeded(event -> {
+            viewTasks.remove(task);
+            if (onSuccess != null) {
+                onSuccess.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            viewTasks.remove(task);
+            Throwable error = task.getException();
+            System.err.println("Background task failed: " + error);
+            if (onFailure != null) {
+                onFailure.accept(error);
+            }
+        });
+        task.setOnCancelled(event -> viewTasks.remove(task));
+        return task;
+    }
+
+    private void execute(Task<?> task, Consumer<Throwable> onFailure) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            viewTasks.remove(task);
+            System.err.println("Background queue full, dropping task: " + e.getMessage());
+            if (onFailure != null) {
+                onFailure.accept(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.hotel.service;
+
+// Counters for the transactional booking path, to see how it behaves when desks contend for rooms
+public class BookingStats {
+    private final long attempts;
+    private final long committed;
+    private final long conflicts;
+    private final long deadlockRetries;
+    private final long failures;
+    private final long averageCommitMicros;
+
+    public BookingStats(long attempts, long committed, long conflicts, long deadlockRetries, long failures,
+            long averageCommitMicros) {
+        this.attempts = attempts;
+        this.committed = committed;
+        this.conflicts = conflicts;
+        this.deadlockRetries = deadlockRetries;
+        this.failures = failures;
+        this.averageCommitMicros = averageCommitMicros;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public long getCommitted() {
+        return committed;
+    }
+
+    // Bookings refused because a night was already taken
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public long getDeadlockRetries() {
+        return deadlockRetries;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    // Average time of a committed booking, from taking a connection to the commit
+    public long getAverageCommitMicros() {
+        return averageCommitMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingStats[attempts=" + attempts + ", committed=" + committed + ", conflicts=" + conflicts
+                + ", deadlockRetries=" + deadlockRetries + ", failures=" + failures
+                + ", avgCommit=" + averageCommitMicros + "us]";
+    }
+}
@@ -0,0 +1,313 @@
+package com.hotel.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool. Connections handed out are proxies whose
+ * close() returns the physical connection to the pool, so DAOs can keep
+ * using try-with-resources.
+ */
+public class ConnectionPool {
+    // Connections used within this window are not re-validated on borrow
+    private static final long VALIDATION_BYPASS_MS = 500;
+    private static final long HOUSEKEEPING_INTERVAL_MS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long maxWaitMs;
+    private final long idleTimeoutMs;
+    private final long leakThresholdMs;
+    private final int validationTimeoutSec;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    private final AtomicLong totalCreated = new AtomicLong();
+    private final AtomicLong totalClosed = new AtomicLong();
+    private final AtomicLong totalBorrows = new AtomicLong();
+    private final AtomicLong waitTimeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle,
+            long maxWaitMs, long idleTimeoutMs, long leakThresholdMs, int validationTimeoutSec) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.maxWaitMs = maxWaitMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.validationTimeoutSec = validationTimeoutSec;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_INTERVAL_MS, HOUSEKEEPING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void fillToMinIdle() throws SQLException {
+        while (!closed && idle.size() + borrowed.size() < minIdle) {
+            idle.offerLast(new PooledEntry(openPhysical()));
+        }
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                waitTimeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + maxWaitMs + "ms waiting for a database connection ("
+                        + borrowed.size() + "/" + maxSize + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            totalWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+
+        try {
+            PooledEntry entry = takeValidIdle();
+            if (entry == null) {
+                entry = new PooledEntry(openPhysical());
+            }
+            entry.markBorrowed(leakThresholdMs > 0);
+            borrowed.add(entry);
+            totalBorrows.incrementAndGet();
+            return entry.newProxy();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledEntry takeValidIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - entry.lastUsedAt < VALIDATION_BYPASS_MS || isValid(entry)) {
+                return entry;
+            }
+            validationFailures.incrementAndGet();
+            closePhysical(entry);
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledEntry entry) {
+        try {
+            return entry.physical.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, user, password);
+        totalCreated.incrementAndGet();
+        return conn;
+    }
+
+    private void closePhysical(PooledEntry entry) {
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            // Already broken, nothing left to release
+        }
+        totalClosed.incrementAndGet();
+    }
+
+    private void release(PooledEntry entry) {
+        if (!borrowed.remove(entry)) {
+            return;
+        }
+
+        boolean reusable = !closed;
+        try {
+            if (reusable && entry.physical.isClosed()) {
+                reusable = false;
+            }
+            if (reusable && !entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            if (reusable && entry.physical.isReadOnly()) {
+                entry.physical.setReadOnly(false);
+            }
+            if (reusable) {
+                entry.physical.clearWarnings();
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            entry.lastUsedAt = System.currentTimeMillis();
+            idle.offerFirst(entry);
+        } else {
+            closePhysical(entry);
+        }
+        permits.release();
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        // Evict connections that sat idle too long, keeping minIdle warm
+        int excess = idle.size() + borrowed.size() - minIdle;
+        for (PooledEntry entry : idle) {
+            if (excess <= 0) {
+                break;
+            }
+            if (now - entry.lastUsedAt > idleTimeoutMs && idle.remove(entry)) {
+                closePhysical(entry);
+                excess--;
+            }
+        }
+
+        if (leakThresholdMs > 0) {
+            for (PooledEntry entry : borrowed) {
+                if (!entry.leakReported && now - entry.borrowedAt > leakThresholdMs) {
+                    entry.leakReported = true;
+                    leaksDetected.incrementAndGet();
+                    System.err.println("Possible connection leak: connection held for "
+                            + (now - entry.borrowedAt) + "ms by " + entry.borrowerThread);
+                    if (entry.borrowSite != null) {
+                        entry.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+
+        try {
+            fillToMinIdle();
+        } catch (SQLException e) {
+            // Database unreachable; the next borrow will report it
+        }
+    }
+
+    public PoolStats getStats() {
+        return new PoolStats(maxSize, borrowed.size(), idle.size(),
+                permits.getQueueLength(), totalCreated.get(), totalClosed.get(), totalBorrows.get(),
+                waitTimeouts.get(), validationFailures.get(), leaksDetected.get(),
+                totalBorrows.get() == 0 ? 0 : totalWaitNanos.get() / totalBorrows.get() / 1_000);
+    }
+
+    public void shutdown() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            closePhysical(entry);
+        }
+        if (!borrowed.isEmpty()) {
+            System.err.println("Connection pool shut down with " + borrowed.size()
+                    + " connection(s) still in use; they will be closed on return.");
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private class PooledEntry {
+        private final Connection physical;
+        private volatile long lastUsedAt = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile String borrowerThread;
+        private volatile Exception borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        private void markBorrowed(boolean captureSite) {
+            borrowedAt = System.currentTimeMillis();
+            borrowerThread = Thread.currentThread().getName();
+            borrowSite = captureSite ? new Exception("Connection borrowed here") : null;
+            leakReported = false;
+        }
+
+        private Connection newProxy() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new ConnectionHandler(this));
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        private ConnectionHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.hotel.service;
+
+import com.hotel.config.DatabaseConfig;
+import com.hotel.dao.DaoRegistry;
+import com.hotel.dao.GuestDAO;
+import com.hotel.dao.RoomDAO;
+import com.hotel.dao.ServiceDAO;
+import com.hotel.model.Guest;
+import com.hotel.model.Room;
+import com.hotel.model.RoomStatus;
+import com.hotel.model.RoomType;
+import com.hotel.model.Service;
+import com.hotel.model.ServiceCategory;
+import com.hotel.util.CsvReader;
+import com.hotel.util.ValidationUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Bulk import of guests, rooms and services from CSV files with a header row. The file is streamed in
+// chunks of DatabaseConfig.getBatchSize() records: each chunk is validated in parallel with the rules
+// the entry forms use, and its valid rows go out as one batched insert before the next chunk is read,
+// so memory use stays flat however large the file is. Each chunk commits on its own.
+public class CsvImportService {
+    private static final String[] GUEST_COLUMNS = {"first_name", "last_name", "email", "phone", "id_number"};
+    private static final String[] ROOM_COLUMNS = {"room_number", "type", "price_per_night", "max_occupancy"};
+    private static final String[] SERVICE_COLUMNS = {"name", "category", "price"};
+
+    private static CsvImportService instance;
+
+    private final GuestDAO guestDAO;
+    private final RoomDAO roomDAO;
+    private final ServiceDAO serviceDAO;
+
+    private CsvImportService() {
+        DaoRegistry registry = DaoRegistry.getInstance();
+        guestDAO = registry.getGuestDAO();
+        roomDAO = registry.getRoomDAO();
+        serviceDAO = registry.getServiceDAO();
+    }
+
+    public static synchronized CsvImportService getInstance() {
+        if (instance == null) {
+            instance = new CsvImportService();
+        }
+        return instance;
+    }
+
+    // Columns: first_name, last_name, email, phone, id_number and optionally address.
+    // Guests whose id number is already registered are rejected.
+    public ImportResult importGuests(File file) {
+        return importFile(file, "guests", GUEST_COLUMNS, CsvImportService::parseGuest,
+                Guest::getIdNumber, guestDAO::findExistingIdNumbers, guestDAO::insertAll);
+    }
+
+    // Columns: room_number, type, price_per_night, max_occupancy and optionally status, description
+    public ImportResult importRooms(File file) {
+        return importFile(file, "rooms", ROOM_COLUMNS, CsvImportService::parseRoom,
+                Room::getRoomNumber, roomDAO::findExistingRoomNumbers, roomDAO::insertAll);
+    }
+
+    // Columns: name, category, price and optionally description, is_active
+    public ImportResult importServices(File file) {
+        return importFile(file, "services", SERVICE_COLUMNS, CsvImportService::parseService,
+                null, null, serviceDAO::insertAll);
+    }
+
+    private <T> ImportResult importFile(File file, String what, String[] requiredColumns, RowParser<T> parser,
+            Function<T, String> keyOf, KeyLookup existingKeys, BatchInsert<T> writer) {
+        ImportResult result = new ImportResult();
+        long start = System.currentTimeMillis();
+        int batchSize = DatabaseConfig.getBatchSize();
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))) {
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                result.failFile("The file is empty");
+                return result;
+            }
+            Map<String, Integer> columns = indexColumns(header);
+            List<String> missing = new ArrayList<>();
+            for (String column : requiredColumns) {
+                if (!columns.containsKey(column)) {
+                    missing.add(column);
+                }
+            }
+            if (!missing.isEmpty()) {
+                result.failFile("Missing column(s): " + String.join(", ", missing));
+                return result;
+            }
+
+            List<CsvRecord> chunk = new ArrayList<>(batchSize);
+            List<String> fields;
+            while ((fields = reader.readRecord()) != null) {
+                if (isBlank(fields)) {
+                    continue;
+                }
+                chunk.add(new CsvRecord(reader.getRecordLine(), fields, columns));
+                if (chunk.size() == batchSize) {
+                    importChunk(chunk, parser, keyOf, existingKeys, writer, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, parser, keyOf, existingKeys, writer, result);
+            }
+        } catch (IOException e) {
+            result.failFile("Could not read " + file.getName() + ": " + e.getMessage());
+        } catch (SQLException e) {
+            // Rows of earlier chunks stay imported; the report says where the import stopped
+            result.failFile("Import stopped, database error: " + e.getMessage());
+        }
+
+        System.out.println("Imported " + result.getImported() + " " + what + " from " + file.getName() +
+                " (" + result.getRejected() + " rejected) in " + (System.currentTimeMillis() - start) + "ms");
+        return result;
+    }
+
+    // Throws only when the database itself is unusable; rows it refuses are rejected one by one
+    private <T> void importChunk(List<CsvRecord> chunk, RowParser<T> parser, Function<T, String> keyOf,
+            KeyLookup existingKeys, BatchInsert<T> writer, ImportResult result) throws SQLException {
+        // Validation is pure CPU work, so the chunk is spread over the common fork-join pool;
+        // the ordered stream keeps rows in file order for the write and the report
+        List<ParsedRow<T>> parsed = chunk.parallelStream()
+                .map(record -> parseRow(record, parser))
+                .collect(Collectors.toList());
+
+        List<ParsedRow<T>> valid = new ArrayList<>();
+        Set<String> seenKeys = new HashSet<>();
+        for (ParsedRow<T> row : parsed) {
+            if (row.error != null) {
+                result.reject(row.line, row.error);
+            } else if (keyOf != null && !seenKeys.add(normalizeKey(keyOf.apply(row.value)))) {
+                result.reject(row.line, "Duplicate of an earlier row: " + keyOf.apply(row.value));
+            } else {
+                valid.add(row);
+            }
+        }
+
+        // Earlier chunks are already committed, so this also catches duplicates across chunks
+        if (keyOf != null && !valid.isEmpty()) {
+            List<String> keys = valid.stream().map(row -> keyOf.apply(row.value)).collect(Collectors.toList());
+            Set<String> existing = existingKeys.findExisting(keys).stream()
+                    .map(CsvImportService::normalizeKey)
+                    .collect(Collectors.toSet());
+            if (!existing.isEmpty()) {
+                List<ParsedRow<T>> fresh = new ArrayList<>();
+                for (ParsedRow<T> row : valid) {
+                    if (existing.contains(normalizeKey(keyOf.apply(row.value)))) {
+                        result.reject(row.line, "Already exists: " + keyOf.apply(row.value));
+                    } else {
+                        fresh.add(row);
+                    }
+                }
+                valid = fresh;
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            writeRows(valid, writer, result);
+        }
+    }
+
+    // A batch fails as a whole when the database refuses a single row (too long for its column, a
+    // key taken meanwhile). Halving the failed batch isolates the bad rows with the database's own
+    // error, while the good rows still go out in batches.
+    private <T> void writeRows(List<ParsedRow<T>> rows, BatchInsert<T> writer, ImportResult result)
+            throws SQLException {
+        try {
+            writer.insertAll(rows.stream().map(row -> row.value).collect(Collectors.toList()));
+            result.addImported(rows.size());
+        } catch (SQLException e) {
+            if (isConnectionFailure(e)) {
+                throw e;
+            }
+            if (rows.size() == 1) {
+                result.reject(rows.get(0).line, "Could not be saved: " + e.getMessage());
+                return;
+            }
+            int half = rows.size() / 2;
+            writeRows(rows.subList(0, half), writer, result);
+            writeRows(rows.subList(half, rows.size()), writer, result);
+        }
+    }
+
+    // SQLState class 08: the connection failed, which no row of the batch is to blame for
+    private static boolean isConnectionFailure(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("08");
+    }
+
+    private static <T> ParsedRow<T> parseRow(CsvRecord record, RowParser<T> parser) {
+        try {
+            return new ParsedRow<>(record.line, parser.parse(record), null);
+        } catch (InvalidRowException e) {
+            return new ParsedRow<>(record.line, null, e.getMessage());
+        }
+    }
+
+    private static Guest parseGuest(CsvRecord record) throws InvalidRowException {
+        check(ValidationUtil.getRequiredFieldError("First Name", record.get("first_name")));
+        check(ValidationUtil.getRequiredFieldError("Last Name", record.get("last_name")));
+        check(ValidationUtil.getEmailError(record.get("email")));
+        check(ValidationUtil.getPhoneError(record.get("phone")));
+        check(ValidationUtil.getRequiredFieldError("ID Number", record.get("id_number")));
+
+        return new Guest(0, record.get("first_name"), record.get("last_name"), record.get("email"),
+                record.get("phone"), record.get("id_number"), record.get("address"));
+    }
+
+    private static Room parseRoom(CsvRecord record) throws InvalidRowException {
+        check(ValidationUtil.getRequiredFieldError("Room Number", record.get("room_number")));
+        RoomType type = parseEnum(RoomType.values(), "Room type", record.get("type"));
+        RoomStatus status = ValidationUtil.isNotEmpty(record.get("status"))
+                ? parseEnum(RoomStatus.values(), "Room status", record.get("status"))
+                : RoomStatus.AVAILABLE;
+        int maxOccupancy = parseInt("Max Occupancy", record.get("max_occupancy"));
+        check(ValidationUtil.getPositiveNumberError("Max occupancy", maxOccupancy));
+        double price = parseDouble("Price Per Night", record.get("price_per_night"));
+        check(ValidationUtil.getPositiveNumberError("Price per night", price));
+
+        return new Room(record.get("room_number"), type, status, price, record.get("description"), maxOccupancy);
+    }
+
+    private static Service parseService(CsvRecord record) throws InvalidRowException {
+        check(ValidationUtil.getRequiredFieldError("Service Name", record.get("name")));
+        ServiceCategory category = parseEnum(ServiceCategory.values(), "Category", record.get("category"));
+        double price = parseDouble("Price", record.get("price"));
+        check(ValidationUtil.getPositiveNumberError("Price", price));
+        boolean active = parseBoolean("Active", record.get("is_active"), true);
+
+        return new Service(0, record.get("name"), record.get("description"), price, category, active);
+    }
+
+    private static void check(String error) throws InvalidRowException {
+        if (error != null) {
+            throw new InvalidRowException(error);
+        }
+    }
+
+    private static int parseInt(String fieldName, String value) throws InvalidRowException {
+        check(ValidationUtil.getRequiredFieldError(fieldName, value));
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidRowException(fieldName + " must be a valid number");
+        }
+    }
+
+    private static double parseDouble(String fieldName, String value) throws InvalidRowException {
+        check(ValidationUtil.getRequiredFieldError(fieldName, value));
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidRowException(fieldName + " must be a valid number");
+        }
+    }
+
+    private static boolean parseBoolean(String fieldName, String value, boolean defaultValue)
+            throws InvalidRowException {
+        if (!ValidationUtil.isNotEmpty(value)) {
+            return defaultValue;
+        }
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "yes":
+            case "1":
+                return true;
+            case "false":
+            case "no":
+            case "0":
+                return false;
+            default:
+                throw new InvalidRowException(fieldName + " must be true or false");
+        }
+    }
+
+    // Accepts the constant name in any case ("room_service", "ROOM SERVICE") or its display name
+    private static <E extends Enum<E>> E parseEnum(E[] values, String fieldName, String value)
+            throws InvalidRowException {
+        check(ValidationUtil.getRequiredFieldError(fieldName, value));
+        String name = value.replace(' ', '_').replace('-', '_');
+        for (E candidate : values) {
+            if (candidate.name().equalsIgnoreCase(name) || candidate.toString().equalsIgnoreCase(value)) {
+                return candidate;
+            }
+        }
+        throw new InvalidRowException("Unknown " + fieldName.toLowerCase(Locale.ROOT) + ": " + value);
+    }
+
+    // Header names are matched loosely, so "First Name" and "first_name" are the same column
+    private static Map<String, Integer> indexColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT).replaceAll("[\\s-]+", "_");
+            columns.putIfAbsent(name, i);
+        }
+        return columns;
+    }
+
+    private static boolean isBlank(List<String> fields) {
+        for (String field : fields) {
+            if (!field.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Unique columns compare case-insensitively in MySQL's default collation
+    private static String normalizeKey(String key) {
+        return key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @FunctionalInterface
+    private interface RowParser<T> {
+        T parse(CsvRecord record) throws InvalidRowException;
+    }
+
+    @FunctionalInterface
+    private interface KeyLookup {
+        Set<String> findExisting(Collection<String> keys) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface BatchInsert<T> {
+        void insertAll(List<T> rows) throws SQLException;
+    }
+
+    private static class InvalidRowException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private InvalidRowException(String message) {
+            super(message);
+        }
+    }
+
+    private static class CsvRecord {
+        private final int line;
+        private final List<String> fields;
+        private final Map<String, Integer> columns;
+
+        private CsvRecord(int line, List<String> fields, Map<String, Integer> columns) {
+            this.line = line;
+            this.fields = fields;
+            this.columns = columns;
+        }
+
+        // Trimmed value of the column, or "" when the column or the field is missing
+        private String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return "";
+            }
+            return fields.get(index).trim();
+        }
+    }
+
+    private static class ParsedRow<T> {
+        private final int line;
+        private final T value;
+        private final String error;
+
+        private ParsedRow(int line, T value, String error) {
+            this.line = line;
+            this.value = value;
+            this.error = error;
+        }
+    }
+}
@@ -2,21 +2,26 @@ package com.hotel.service;
 
 import com.hotel.config.DatabaseConfig;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 public class DatabaseManager {
     private static DatabaseManager instance;
-    private Connection connection;
+    private final ConnectionPool pool;
 
     private DatabaseManager() {
+        pool = new ConnectionPool(
+                DatabaseConfig.getDbUrl(),
+                DatabaseConfig.getDbUser(),
+                DatabaseConfig.getDbPassword(),
+                DatabaseConfig.getPoolMaxSize(),
+                DatabaseConfig.getPoolMinIdle(),
+                DatabaseConfig.getPoolMaxWaitMs(),
+                DatabaseConfig.getPoolIdleTimeoutMs(),
+                DatabaseConfig.getPoolLeakThresholdMs(),
+                DatabaseConfig.getPoolValidationTimeoutSec());
         try {
             Class.forName(DatabaseConfig.getDbDriver());
-            connection = DriverManager.getConnection(
-                    DatabaseConfig.getDbUrl(),
-                    DatabaseConfig.getDbUser(),
-                    DatabaseConfig.getDbPassword());
+            pool.fillToMinIdle();
             System.out.println("Database connection established successfully!");
         } catch (ClassNotFoundException e) {
             System.err.println("MySQL JDBC Driver not found!");
@@ -34,34 +39,30 @@ public class DatabaseManager {
         return instance;
     }
 
+    // Borrows a pooled connection; closing it hands it back to the pool
     public Connection getConnection() {
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(
-                        DatabaseConfig.getDbUrl(),
-                        DatabaseConfig.getDbUser(),
-                        DatabaseConfig.getDbPassword());
-            }
+            return pool.getConnection();
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return connection;
+        return null;
+    }
+
+    public PoolStats getPoolStats() {
+        return pool.getStats();
     }
 
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        if (!pool.isClosed()) {
+            pool.shutdown();
+            System.out.println("Database connection pool closed. " + pool.getStats());
         }
     }
 
     public boolean testConnection() {
-        try {
-            return connection != null && !connection.isClosed();
+        try (Connection conn = pool.getConnection()) {
+            return conn.isValid(DatabaseConfig.getPoolValidationTimeoutSec());
         } catch (SQLException e) {
             return false;
         }
@@ -0,0 +1,389 @@
+package com.hotel.service;
+
+import com.hotel.model.Guest;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory trigram index over the searchable guest columns (name, email, phone, id number).
+// A search intersects the posting lists of the term's trigrams and only verifies and ranks the
+// few guests left, instead of scanning every row with LIKE '%term%'. GuestDAO keeps it in sync.
+public class GuestSearchIndex {
+    private static GuestSearchIndex instance;
+
+    // Separates fields in the stored text so a match can never span two columns
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    // Ranks, best first
+    private static final int EXACT_FIELD = 0;
+    private static final int FIELD_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+
+    private final DatabaseManager dbManager;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IdList> postings = new HashMap<>();
+    private final Map<Integer, String> textById = new HashMap<>();
+    private volatile boolean loaded = false;
+
+    GuestSearchIndex(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    public static synchronized GuestSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new GuestSearchIndex(DatabaseManager.getInstance());
+        }
+        return instance;
+    }
+
+    public synchronized boolean rebuild() {
+        String query = "SELECT id, first_name, last_name, email, phone, id_number FROM guests ORDER BY id";
+
+        Map<String, IdList> newPostings = new HashMap<>();
+        Map<Integer, String> newText = new HashMap<>();
+
+        try (Connection conn = dbManager.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(query)) {
+
+            while (rs.next()) {
+                addInIdOrder(rs.getInt("id"), normalize(rs.getString("first_name"), rs.getString("last_name"),
+                        rs.getString("email"), rs.getString("phone"), rs.getString("id_number")), newPostings, newText);
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Could not build guest search index: " + e.getMessage());
+            return false;
+        }
+
+        replaceAll(newPostings, newText);
+        return true;
+    }
+
+    // Builds the index from guests already in memory instead of the guests table
+    synchronized void load(List<Guest> guests) {
+        List<Guest> byId = new ArrayList<>(guests);
+        byId.sort(Comparator.comparingInt(Guest::getId));
+
+        Map<String, IdList> newPostings = new HashMap<>();
+        Map<Integer, String> newText = new HashMap<>();
+        for (Guest guest : byId) {
+            addInIdOrder(guest.getId(), normalize(guest.getFirstName(), guest.getLastName(), guest.getEmail(),
+                    guest.getPhone(), guest.getIdNumber()), newPostings, newText);
+        }
+        replaceAll(newPostings, newText);
+    }
+
+    // Guests are added in id order, so every posting list is built already sorted
+    private static void addInIdOrder(int id, String text, Map<String, IdList> newPostings,
+            Map<Integer, String> newText) {
+        newText.put(id, text);
+        for (String trigram : trigrams(text)) {
+            newPostings.computeIfAbsent(trigram, k -> new IdList()).append(id);
+        }
+    }
+
+    private void replaceAll(Map<String, IdList> newPostings, Map<Integer, String> newText) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            postings.putAll(newPostings);
+            textById.clear();
+            textById.putAll(newText);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Guest search index built: " + newText.size() + " guests, " +
+                newPostings.size() + " trigrams");
+    }
+
+    private boolean ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public boolean isAvailable() {
+        return ensureLoaded();
+    }
+
+    // Ids of up to limit guests matching every word of the term, best match first: a whole field
+    // equal to a word, then field prefixes, word prefixes and plain substrings; newest guest on ties.
+    // Words of one or two letters match the start of a field or word only.
+    public List<Integer> search(String term, int limit) {
+        List<String> words = words(term);
+        if (words.isEmpty() || !ensureLoaded()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> queryGrams = new LinkedHashSet<>();
+        for (String word : words) {
+            queryGrams.addAll(queryTrigrams(word));
+        }
+
+        lock.readLock().lock();
+        try {
+            List<IdList> lists = new ArrayList<>();
+            for (String gram : queryGrams) {
+                IdList list = postings.get(gram);
+                if (list == null || list.size == 0) {
+                    return new ArrayList<>();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            // Head is the worst kept match, so it is the one dropped when the limit is exceeded
+            PriorityQueue<Match> best = new PriorityQueue<>(Match.BEST_FIRST.reversed());
+            IdList smallest = lists.get(0);
+            for (int i = 0; i < smallest.size; i++) {
+                int id = smallest.ids[i];
+                if (!inAll(lists, id)) {
+                    continue;
+                }
+                int rank = rank(textById.get(id), words);
+                if (rank < 0) {
+                    continue;
+                }
+                best.add(new Match(id, rank));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Match> matches = new ArrayList<>(best);
+            matches.sort(Match.BEST_FIRST);
+            List<Integer> ids = new ArrayList<>(matches.size());
+            for (Match match : matches) {
+                ids.add(match.id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void onGuestSaved(Guest guest) {
+        if (!loaded) {
+            return;
+        }
+
+        String text = normalize(guest.getFirstName(), guest.getLastName(), guest.getEmail(),
+                guest.getPhone(), guest.getIdNumber());
+        lock.writeLock().lock();
+        try {
+            removeGuest(guest.getId());
+            textById.put(guest.getId(), text);
+            for (String trigram : trigrams(text)) {
+                postings.computeIfAbsent(trigram, k -> new IdList()).insert(guest.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onGuestDeleted(int guestId) {
+        if (!loaded) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeGuest(guestId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeGuest(int guestId) {
+        String old = textById.remove(guestId);
+        if (old != null) {
+            for (String trigram : trigrams(old)) {
+                IdList list = postings.get(trigram);
+                if (list != null) {
+                    list.remove(guestId);
+                }
+            }
+        }
+    }
+
+    private static boolean inAll(List<IdList> lists, int id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Trigrams only prove a word's letters occur somewhere; this checks the real match.
+    // Returns the worst rank over all words, or -1 if some word does not match.
+    private static int rank(String text, List<String> words) {
+        String[] fields = text.split(String.valueOf(FIELD_SEPARATOR), -1);
+        int worst = EXACT_FIELD;
+        for (String word : words) {
+            int bestForWord = -1;
+            for (String field : fields) {
+                int fieldRank = rankInField(field, word);
+                if (fieldRank >= 0 && (bestForWord < 0 || fieldRank < bestForWord)) {
+                    bestForWord = fieldRank;
+                }
+            }
+            if (bestForWord < 0) {
+                return -1;
+            }
+            worst = Math.max(worst, bestForWord);
+        }
+        return worst;
+    }
+
+    private static int rankInField(String field, String word) {
+        if (field.equals(word)) {
+            return EXACT_FIELD;
+        }
+        if (field.startsWith(word)) {
+            return FIELD_PREFIX;
+        }
+        int best = -1;
+        int index = field.indexOf(word);
+        while (index > 0) {
+            if (!Character.isLetterOrDigit(field.charAt(index - 1))) {
+                return WORD_PREFIX;
+            }
+            if (word.length() >= 3) {
+                best = SUBSTRING;
+            }
+            index = field.indexOf(word, index + 1);
+        }
+        return best;
+    }
+
+    private static String normalize(String... fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            if (text.length() > 0) {
+                text.append(FIELD_SEPARATOR);
+            }
+            if (field != null) {
+                text.append(field.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return text.toString();
+    }
+
+    private static List<String> words(String term) {
+        List<String> words = new ArrayList<>();
+        if (term != null) {
+            for (String word : term.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    // Each field and each word inside it is padded with two spaces in front, so its first one and
+    // two letters also form trigrams ("  j", " jo") and short terms can be looked up as prefixes
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String field : text.split(String.valueOf(FIELD_SEPARATOR), -1)) {
+            String padded = "  " + field;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+            for (int i = 1; i < field.length(); i++) {
+                if (!Character.isLetterOrDigit(field.charAt(i - 1)) && Character.isLetterOrDigit(field.charAt(i))) {
+                    String wordStart = "  " + field.substring(i, Math.min(field.length(), i + 2));
+                    grams.add(wordStart.substring(0, 3));
+                    if (wordStart.length() >= 4) {
+                        grams.add(wordStart.substring(1, 4));
+                    }
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static List<String> queryTrigrams(String word) {
+        List<String> grams = new ArrayList<>();
+        if (word.length() < 3) {
+            String padded = "  " + word;
+            grams.add(padded.substring(padded.length() - 3));
+            return grams;
+        }
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            grams.add(word.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static class Match {
+        private static final Comparator<Match> BEST_FIRST = Comparator.<Match>comparingInt(m -> m.rank)
+                .thenComparing(Comparator.<Match>comparingInt(m -> m.id).reversed());
+
+        private final int id;
+        private final int rank;
+
+        private Match(int id, int rank) {
+            this.id = id;
+            this.rank = rank;
+        }
+    }
+
+    // Sorted, growable list of guest ids for one trigram
+    private static class IdList {
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        private void append(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private void insert(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        private void remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        private boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.hotel.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Central source of ids that the database does not assign. Stored rows always take the key the
+// database generates (RETURN_GENERATED_KEYS), including batch inserts; only rows that exist in this
+// client alone, in demo mode without a database, get an id from here.
+public class IdAllocator {
+    private static IdAllocator instance;
+
+    private final AtomicInteger localIds = new AtomicInteger();
+
+    private IdAllocator() {
+    }
+
+    public static synchronized IdAllocator getInstance() {
+        if (instance == null) {
+            instance = new IdAllocator();
+        }
+        return instance;
+    }
+
+    // Ids for rows that only exist in this client (demo mode without a database). They are negative,
+    // so they can never clash with a stored row.
+    public int nextLocalId() {
+        return localIds.decrementAndGet();
+    }
+}
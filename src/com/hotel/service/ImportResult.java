@@ -0,0 +1,53 @@
+package com.hotel.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of a CsvImportService run: rows imported, rows rejected with the reason per line, or the
+// error that stopped the file from being read at all
+public class ImportResult {
+    // Only the first errors are kept for the report; the rest are just counted
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private int imported = 0;
+    private int rejected = 0;
+    private final List<String> errors = new ArrayList<>();
+    private String fileError;
+
+    void addImported(int count) {
+        imported += count;
+    }
+
+    void reject(int line, String reason) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Line " + line + ": " + reason);
+        }
+    }
+
+    void failFile(String message) {
+        fileError = message;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    // Set when the file could not be opened or parsed; rows before that point may still be imported
+    public String getFileError() {
+        return fileError;
+    }
+
+    public boolean hasProblems() {
+        return rejected > 0 || fileError != null;
+    }
+}
@@ -0,0 +1,192 @@
+package com.hotel.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// Brings the database schema up to date at startup. Scripts live next to the classes in
+// com/hotel/db/migrations and are applied in version order; each applied version is recorded
+// in schema_version so it runs exactly once per database.
+public class MigrationRunner {
+    private static final String MIGRATION_PATH = "/com/hotel/db/migrations/";
+
+    // Append new scripts here; never edit or renumber one that has shipped
+    private static final String[] MIGRATIONS = {
+            "V1__baseline_schema.sql",
+            "V2__reservation_indexes.sql",
+            "V3__payment_and_service_indexes.sql",
+            "V4__guest_fulltext_index.sql",
+            "V5__guest_name_indexes.sql",
+            "V6__room_nights.sql"
+    };
+
+    // MySQL "Duplicate key name": the index already exists, e.g. created by hand before migrations
+    private static final int ER_DUP_KEYNAME = 1061;
+    private static final String LOCK_NAME = "hotel_schema_migration";
+    private static final int LOCK_TIMEOUT_SEC = 30;
+
+    private final DatabaseManager dbManager;
+
+    public MigrationRunner() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    public boolean migrate() {
+        try (Connection conn = dbManager.getConnection()) {
+            if (conn == null) {
+                System.err.println("Skipping schema migrations: database unavailable");
+                return false;
+            }
+
+            // Serialize with other clients starting against the same database
+            if (!acquireLock(conn)) {
+                System.err.println("Skipping schema migrations: could not acquire migration lock");
+                return false;
+            }
+            try {
+                ensureVersionTable(conn);
+                Map<Integer, Long> applied = loadAppliedVersions(conn);
+
+                for (String script : MIGRATIONS) {
+                    int version = parseVersion(script);
+                    String sql = readScript(script);
+                    long checksum = checksum(sql);
+
+                    if (applied.containsKey(version)) {
+                        if (applied.get(version) != checksum) {
+                            System.err.println("Warning: migration " + script + " changed after it was applied");
+                        }
+                        continue;
+                    }
+                    apply(conn, version, script, sql, checksum);
+                }
+            } finally {
+                releaseLock(conn);
+            }
+            return true;
+        } catch (SQLException | IOException e) {
+            System.err.println("Schema migration failed: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private void apply(Connection conn, int version, String script, String sql, long checksum) throws SQLException {
+        long start = System.currentTimeMillis();
+
+        // MySQL commits DDL implicitly, so a script is not atomic; the version is only recorded
+        // once every statement succeeded and a half-applied script is simply run again
+        try (Statement stmt = conn.createStatement()) {
+            for (String statement : splitStatements(sql)) {
+                try {
+                    stmt.execute(statement);
+                } catch (SQLException e) {
+                    if (e.getErrorCode() != ER_DUP_KEYNAME) {
+                        throw new SQLException("Migration " + script + " failed at: " + statement, e);
+                    }
+                }
+            }
+        }
+
+        String insert = "INSERT INTO schema_version (version, script, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(insert)) {
+            pstmt.setInt(1, version);
+            pstmt.setString(2, script);
+            pstmt.setLong(3, checksum);
+            pstmt.setLong(4, System.currentTimeMillis() - start);
+            pstmt.executeUpdate();
+        }
+        System.out.println("Applied migration " + script + " in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private void ensureVersionTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INT PRIMARY KEY, " +
+                "script VARCHAR(200) NOT NULL, " +
+                "checksum BIGINT NOT NULL, " +
+                "execution_ms BIGINT NOT NULL, " +
+                "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                ")";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private Map<Integer, Long> loadAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SEC);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+
+    private void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery();
+        } catch (SQLException e) {
+            // The lock is released with the session anyway
+        }
+    }
+
+    private static int parseVersion(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static String readScript(String script) throws IOException {
+        try (InputStream in = MigrationRunner.class.getResourceAsStream(MIGRATION_PATH + script)) {
+            if (in == null) {
+                throw new IOException("Migration script not found on classpath: " + MIGRATION_PATH + script);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // Line endings are normalized so a checkout with different EOLs does not look like an edit
+    private static long checksum(String sql) {
+        CRC32 crc = new CRC32();
+        crc.update(sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    // Scripts are plain DDL: "--" comment lines and statements ending with ';'
+    private static List<String> splitStatements(String sql) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+
+        for (String line : sql.split("\r?\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String statement = current.toString().trim();
+                statements.add(statement.substring(0, statement.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+}
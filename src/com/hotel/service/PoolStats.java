@@ -0,0 +1,83 @@
+package com.hotel.service;
+
+public class PoolStats {
+    private final int maxSize;
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final long totalCreated;
+    private final long totalClosed;
+    private final long totalBorrows;
+    private final long waitTimeouts;
+    private final long validationFailures;
+    private final long leaksDetected;
+    private final long averageWaitMicros;
+
+    public PoolStats(int maxSize, int active, int idle, int waiting, long totalCreated, long totalClosed,
+            long totalBorrows, long waitTimeouts, long validationFailures, long leaksDetected,
+            long averageWaitMicros) {
+        this.maxSize = maxSize;
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.totalCreated = totalCreated;
+        this.totalClosed = totalClosed;
+        this.totalBorrows = totalBorrows;
+        this.waitTimeouts = waitTimeouts;
+        this.validationFailures = validationFailures;
+        this.leaksDetected = leaksDetected;
+        this.averageWaitMicros = averageWaitMicros;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public long getTotalCreated() {
+        return totalCreated;
+    }
+
+    public long getTotalClosed() {
+        return totalClosed;
+    }
+
+    public long getTotalBorrows() {
+        return totalBorrows;
+    }
+
+    public long getWaitTimeouts() {
+        return waitTimeouts;
+    }
+
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    public long getAverageWaitMicros() {
+        return averageWaitMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats[active=" + active + "/" + maxSize + ", idle=" + idle + ", waiting=" + waiting
+                + ", created=" + totalCreated + ", closed=" + totalClosed + ", borrows=" + totalBorrows
+                + ", timeouts=" + waitTimeouts + ", validationFailures=" + validationFailures
+                + ", leaks=" + leaksDetected + ", avgWait=" + averageWaitMicros + "us]";
+    }
+}
@@ -0,0 +1,176 @@
+package com.hotel.service;
+
+import com.hotel.dao.DaoRegistry;
+import com.hotel.dao.ReservationDAO;
+import com.hotel.dao.RoomDAO;
+import com.hotel.model.Reservation;
+import com.hotel.model.ReservationStatus;
+import com.hotel.model.Room;
+import com.hotel.model.RoomStatus;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Booking, check-in, check-out and cancellation as single transactions: the reservation, the nights
+// it holds in room_nights and the room status change together or not at all. Two desks booking the
+// same room and night collide on the room_nights key, and status changes require the status the
+// reservation was loaded with, so concurrent edits cannot both succeed.
+// The passed-in reservation and room are only updated after the commit.
+public class ReservationWorkflowService {
+    // MySQL "Duplicate entry": the room is already held for one of the nights
+    private static final int ER_DUP_ENTRY = 1062;
+    // MySQL "Deadlock found": InnoDB rolled the transaction back and it can simply run again
+    private static final int ER_LOCK_DEADLOCK = 1213;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static ReservationWorkflowService instance;
+
+    private final DatabaseManager dbManager;
+    private final ReservationDAO reservationDAO;
+    private final RoomDAO roomDAO;
+
+    private final AtomicLong bookingAttempts = new AtomicLong();
+    private final AtomicLong bookingsCommitted = new AtomicLong();
+    private final AtomicLong bookingConflicts = new AtomicLong();
+    private final AtomicLong deadlockRetries = new AtomicLong();
+    private final AtomicLong bookingFailures = new AtomicLong();
+    private final AtomicLong bookingCommitNanos = new AtomicLong();
+
+    @FunctionalInterface
+    private interface Steps {
+        void queue(UnitOfWork work) throws SQLException;
+    }
+
+    private ReservationWorkflowService() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.reservationDAO = DaoRegistry.getInstance().getReservationDAO();
+        this.roomDAO = DaoRegistry.getInstance().getRoomDAO();
+    }
+
+    public static synchronized ReservationWorkflowService getInstance() {
+        if (instance == null) {
+            instance = new ReservationWorkflowService();
+        }
+        return instance;
+    }
+
+    // New reservation; a confirmed or checked-in booking also marks the room occupied
+    public WorkflowResult book(Reservation reservation) {
+        Room room = reservation.getRoom();
+        return runBooking(work -> {
+            reservationDAO.addReservation(work, reservation);
+            if (reservation.getStatus() == ReservationStatus.CONFIRMED ||
+                    reservation.getStatus() == ReservationStatus.CHECKED_IN) {
+                roomDAO.updateRoomStatus(work, room, RoomStatus.OCCUPIED);
+            }
+        }, "Room " + room.getRoomNumber() + " was booked for some of these nights in the meantime.");
+    }
+
+    // Edited reservation: its nights are released and claimed again for the new room and dates
+    public WorkflowResult update(Reservation reservation) {
+        return runBooking(work -> reservationDAO.updateReservation(work, reservation),
+                "Room " + reservation.getRoom().getRoomNumber() + " is already booked for some of these nights.");
+    }
+
+    public BookingStats getBookingStats() {
+        long committed = bookingsCommitted.get();
+        return new BookingStats(bookingAttempts.get(), committed, bookingConflicts.get(), deadlockRetries.get(),
+                bookingFailures.get(), committed == 0 ? 0 : bookingCommitNanos.get() / committed / 1_000);
+    }
+
+    public WorkflowResult checkIn(Reservation reservation) {
+        if (reservation.getStatus() != ReservationStatus.CONFIRMED) {
+            return WorkflowResult.rejected("Only confirmed reservations can be checked in.");
+        }
+        return run(work -> {
+            reservationDAO.updateStatus(work, reservation, ReservationStatus.CHECKED_IN);
+            roomDAO.updateRoomStatus(work, reservation.getRoom(), RoomStatus.OCCUPIED);
+        });
+    }
+
+    public WorkflowResult checkOut(Reservation reservation) {
+        if (reservation.getStatus() != ReservationStatus.CHECKED_IN) {
+            return WorkflowResult.rejected("Only checked-in reservations can be checked out.");
+        }
+        return run(work -> {
+            reservationDAO.updateStatus(work, reservation, ReservationStatus.CHECKED_OUT);
+            roomDAO.updateRoomStatus(work, reservation.getRoom(), RoomStatus.AVAILABLE);
+        });
+    }
+
+    public WorkflowResult cancel(Reservation reservation) {
+        if (reservation.getStatus() == ReservationStatus.CHECKED_OUT ||
+                reservation.getStatus() == ReservationStatus.CANCELLED) {
+            return WorkflowResult.rejected("This reservation is already completed or cancelled.");
+        }
+        return run(work -> {
+            reservationDAO.updateStatus(work, reservation, ReservationStatus.CANCELLED);
+            // Free the room if it was occupied
+            Room room = reservation.getRoom();
+            if (room.getStatus() == RoomStatus.OCCUPIED) {
+                roomDAO.updateRoomStatus(work, room, RoomStatus.AVAILABLE);
+            }
+        });
+    }
+
+    private WorkflowResult runBooking(Steps steps, String conflictMessage) {
+        bookingAttempts.incrementAndGet();
+        long start = System.nanoTime();
+        WorkflowResult result = run(steps, conflictMessage);
+        switch (result.getStatus()) {
+            case COMPLETED:
+                bookingsCommitted.incrementAndGet();
+                bookingCommitNanos.addAndGet(System.nanoTime() - start);
+                break;
+            case CONFLICT:
+                bookingConflicts.incrementAndGet();
+                break;
+            default:
+                bookingFailures.incrementAndGet();
+                break;
+        }
+        return result;
+    }
+
+    private WorkflowResult run(Steps steps) {
+        return run(steps, "The reservation or its room was changed in the meantime. " +
+                "The list has been reloaded; please try again.");
+    }
+
+    // A deadlock victim has been rolled back completely, so the steps are queued again from scratch
+    private WorkflowResult run(Steps steps, String conflictMessage) {
+        for (int attempt = 1; ; attempt++) {
+            try (UnitOfWork work = new UnitOfWork(dbManager)) {
+                steps.queue(work);
+                work.commit();
+                return WorkflowResult.completed();
+            } catch (UnitOfWork.StaleDataException e) {
+                return WorkflowResult.conflict(conflictMessage);
+            } catch (SQLException e) {
+                if (hasErrorCode(e, ER_DUP_ENTRY)) {
+                    return WorkflowResult.conflict(conflictMessage);
+                }
+                if (hasErrorCode(e, ER_LOCK_DEADLOCK) && attempt < MAX_ATTEMPTS) {
+                    deadlockRetries.incrementAndGet();
+                    continue;
+                }
+                System.err.println("Reservation workflow failed: " + e.getMessage());
+                return WorkflowResult.failed(e.getMessage());
+            }
+        }
+    }
+
+    // Batch failures wrap the statement's error, so the whole cause chain is checked
+    private static boolean hasErrorCode(SQLException e, int errorCode) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                SQLException sqlException = (SQLException) t;
+                if (sqlException.getErrorCode() == errorCode ||
+                        (sqlException.getNextException() != null && sqlException.getNextException().getErrorCode() == errorCode)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,226 @@
+package com.hotel.service;
+
+import com.hotel.model.Reservation;
+import com.hotel.model.ReservationStatus;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory per-room index of the stays that block a room (pending, confirmed, checked in).
+// Answers overlap queries without touching the database; ReservationDAO keeps it in sync with this
+// client's own writes. Other clients' bookings only show up after a rebuild, so the room_nights
+// table stays the authority and the index is the answer when the database cannot be reached.
+public class RoomAvailabilityIndex {
+    private static RoomAvailabilityIndex instance;
+
+    private final DatabaseManager dbManager;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, RoomStays> rooms = new HashMap<>();
+    private final Map<Integer, Stay> staysByReservation = new HashMap<>();
+    // Changes saved while a rebuild reads the table; replayed on top of its snapshot so none is lost
+    private List<Runnable> pendingChanges;
+    private volatile boolean loaded = false;
+
+    private RoomAvailabilityIndex() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    public static synchronized RoomAvailabilityIndex getInstance() {
+        if (instance == null) {
+            instance = new RoomAvailabilityIndex();
+        }
+        return instance;
+    }
+
+    public static boolean blocksRoom(ReservationStatus status) {
+        return status == ReservationStatus.PENDING ||
+                status == ReservationStatus.CONFIRMED ||
+                status == ReservationStatus.CHECKED_IN;
+    }
+
+    public synchronized boolean rebuild() {
+        String query = "SELECT id, room_number, check_in_date, check_out_date FROM reservations " +
+                "WHERE status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')";
+
+        Map<String, RoomStays> newRooms = new HashMap<>();
+        Map<Integer, Stay> newStays = new HashMap<>();
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try (Connection conn = dbManager.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(query)) {
+
+            while (rs.next()) {
+                Stay stay = new Stay(
+                        rs.getInt("id"),
+                        rs.getString("room_number"),
+                        rs.getDate("check_in_date").toLocalDate(),
+                        rs.getDate("check_out_date").toLocalDate());
+                newStays.put(stay.reservationId, stay);
+                newRooms.computeIfAbsent(stay.roomNumber, k -> new RoomStays()).add(stay);
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Could not build room availability index: " + e.getMessage());
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            rooms.clear();
+            rooms.putAll(newRooms);
+            staysByReservation.clear();
+            staysByReservation.putAll(newStays);
+            // The snapshot may or may not include these; replaying them in order is safe either way
+            for (Runnable change : pendingChanges) {
+                change.run();
+            }
+            pendingChanges = null;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Room availability index built: " + newStays.size() + " active stays");
+        return true;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    public boolean isAvailable(String roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        return isAvailable(roomNumber, checkIn, checkOut, 0);
+    }
+
+    // Stays are half-open [checkIn, checkOut): a checkout day can be the next guest's check-in day
+    public boolean isAvailable(String roomNumber, LocalDate checkIn, LocalDate checkOut, int ignoredReservationId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            RoomStays stays = rooms.get(roomNumber);
+            return stays == null || stays.findOverlap(checkIn, checkOut, ignoredReservationId) == null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void onReservationSaved(Reservation reservation) {
+        if (reservation.getRoom() == null) {
+            return;
+        }
+
+        // Captured now: the reservation object may be edited again before a buffered change is replayed
+        int reservationId = reservation.getId();
+        Stay stay = !blocksRoom(reservation.getStatus()) ? null : new Stay(
+                reservationId,
+                reservation.getRoom().getRoomNumber(),
+                reservation.getCheckInDate(),
+                reservation.getCheckOutDate());
+        apply(() -> {
+            removeStay(reservationId);
+            if (stay != null) {
+                staysByReservation.put(stay.reservationId, stay);
+                rooms.computeIfAbsent(stay.roomNumber, k -> new RoomStays()).add(stay);
+            }
+        });
+    }
+
+    public void onReservationDeleted(int reservationId) {
+        apply(() -> removeStay(reservationId));
+    }
+
+    // Before the first load there is nothing to update: the rebuild reads the committed change anyway
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            if (loaded) {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeStay(int reservationId) {
+        Stay old = staysByReservation.remove(reservationId);
+        if (old != null) {
+            RoomStays stays = rooms.get(old.roomNumber);
+            if (stays != null) {
+                stays.remove(old);
+            }
+        }
+    }
+
+    private static class Stay {
+        private final int reservationId;
+        private final String roomNumber;
+        private final LocalDate checkIn;
+        private final LocalDate checkOut;
+
+        private Stay(int reservationId, String roomNumber, LocalDate checkIn, LocalDate checkOut) {
+            this.reservationId = reservationId;
+            this.roomNumber = roomNumber;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+    }
+
+    // Stays of one room ordered by check-in date. A room's active stays never overlap (room_nights
+    // holds one row per room and night), so ordering by check-in also orders them by check-out and
+    // only the last stay starting before the requested check-out can reach into the range.
+    private static class RoomStays {
+        private final NavigableSet<Stay> byCheckIn = new TreeSet<>(
+                Comparator.comparing((Stay s) -> s.checkIn).thenComparingInt(s -> s.reservationId));
+
+        private void add(Stay stay) {
+            byCheckIn.add(stay);
+        }
+
+        private void remove(Stay stay) {
+            byCheckIn.remove(stay);
+        }
+
+        private Stay findOverlap(LocalDate checkIn, LocalDate checkOut, int ignoredReservationId) {
+            Stay upperBound = new Stay(Integer.MIN_VALUE, null, checkOut, checkOut);
+            Iterator<Stay> earlier = byCheckIn.headSet(upperBound, false).descendingIterator();
+            while (earlier.hasNext()) {
+                Stay stay = earlier.next();
+                // The reservation being edited is skipped in favour of its neighbour
+                if (stay.reservationId != ignoredReservationId) {
+                    return stay.checkOut.isAfter(checkIn) ? stay : null;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.hotel.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// One JDBC transaction. Statements are queued per SQL text and sent as JDBC batches on commit,
+// followed by a single COMMIT. Work registered with afterCommit (cache and index updates, model
+// changes) only runs once the commit succeeded; closing a unit that was not committed rolls it back.
+public class UnitOfWork implements AutoCloseable {
+    @FunctionalInterface
+    public interface Binder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+
+    // A queued statement matched no row: the data changed after it was read
+    public static class StaleDataException extends SQLException {
+        private static final long serialVersionUID = 1L;
+
+        public StaleDataException(String message) {
+            super(message);
+        }
+    }
+
+    private final Connection conn;
+    private final Map<String, PreparedStatement> batches = new LinkedHashMap<>();
+    private final Set<String> mayMatchNothing = new HashSet<>();
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private boolean committed = false;
+
+    public UnitOfWork(DatabaseManager dbManager) throws SQLException {
+        conn = dbManager.getConnection();
+        if (conn == null) {
+            throw new SQLException("Database unavailable");
+        }
+        conn.setAutoCommit(false);
+    }
+
+    // Queues one execution of sql; every queued execution must affect at least one row.
+    // Batches run in the order their SQL was first queued.
+    public void batch(String sql, Binder binder) throws SQLException {
+        PreparedStatement pstmt = batches.get(sql);
+        if (pstmt == null) {
+            pstmt = conn.prepareStatement(sql);
+            batches.put(sql, pstmt);
+        }
+        binder.bind(pstmt);
+        pstmt.addBatch();
+    }
+
+    // Like batch, for statements that may legitimately match no row (e.g. clearing child rows)
+    public void batchAny(String sql, Binder binder) throws SQLException {
+        mayMatchNothing.add(sql);
+        batch(sql, binder);
+    }
+
+    // Runs an INSERT right away, inside the transaction, and returns its generated key
+    public int insert(String sql, Binder binder) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            binder.bind(pstmt);
+            pstmt.executeUpdate();
+            ResultSet rs = pstmt.getGeneratedKeys();
+            if (!rs.next()) {
+                throw new SQLException("No key generated by: " + sql);
+            }
+            return rs.getInt(1);
+        }
+    }
+
+    public void afterCommit(Runnable hook) {
+        afterCommit.add(hook);
+    }
+
+    public void commit() throws SQLException {
+        flush();
+        conn.commit();
+        committed = true;
+
+        for (Runnable hook : afterCommit) {
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                // The data is committed; a failed cache update must not report the work as failed
+                System.err.println("After-commit hook failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Sends the queued batches without committing, so large units can be written in chunks
+    public void flush() throws SQLException {
+        for (Map.Entry<String, PreparedStatement> entry : batches.entrySet()) {
+            boolean mustMatch = !mayMatchNothing.contains(entry.getKey());
+            for (int count : entry.getValue().executeBatch()) {
+                // SUCCESS_NO_INFO is reported for rewritten batches and is not a miss
+                if (count == Statement.EXECUTE_FAILED || (mustMatch && count == 0)) {
+                    throw new StaleDataException("No row matched: " + entry.getKey());
+                }
+            }
+        }
+    }
+
+    // The pool restores auto-commit when the connection is handed back
+    @Override
+    public void close() {
+        try {
+            for (PreparedStatement pstmt : batches.values()) {
+                pstmt.close();
+            }
+            if (!committed) {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
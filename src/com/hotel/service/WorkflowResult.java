@@ -0,0 +1,51 @@
+package com.hotel.service;
+
+// Outcome of a ReservationWorkflowService call
+public class WorkflowResult {
+    public enum Status {
+        // Every statement applied and committed
+        COMPLETED,
+        // Not allowed from the reservation's current status; nothing was sent to the database
+        REJECTED,
+        // A row changed since it was loaded; the transaction was rolled back
+        CONFLICT,
+        // Database error or no database; the transaction was rolled back
+        FAILED
+    }
+
+    private final Status status;
+    private final String message;
+
+    private WorkflowResult(Status status, String message) {
+        this.status = status;
+        this.message = message;
+    }
+
+    public static WorkflowResult completed() {
+        return new WorkflowResult(Status.COMPLETED, null);
+    }
+
+    public static WorkflowResult rejected(String message) {
+        return new WorkflowResult(Status.REJECTED, message);
+    }
+
+    public static WorkflowResult conflict(String message) {
+        return new WorkflowResult(Status.CONFLICT, message);
+    }
+
+    public static WorkflowResult failed(String message) {
+        return new WorkflowResult(Status.FAILED, message);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isCompleted() {
+        return status == Status.COMPLETED;
+    }
+}
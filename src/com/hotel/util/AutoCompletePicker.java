@@ -0,0 +1,120 @@
+package com.hotel.util;
+
+import com.hotel.service.BackgroundExecutor;
+import javafx.animation.PauseTransition;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.scene.control.ComboBox;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
+
+import java.util.Collections;
+import java.util.function.Function;
+
+// Turns an editable ComboBox into a lookup-as-you-type picker: once typing pauses, the typed text is
+// sent to a lookup on a worker thread and the (small) result replaces the drop-down items. Nothing
+// is loaded until the user types, and a newer lookup cancels the one still running.
+public class AutoCompletePicker<T> {
+    private static final Duration DEBOUNCE_DELAY = Duration.millis(250);
+
+    private final ComboBox<T> comboBox;
+    private final Function<T, String> display;
+    private final Function<String, ObservableList<T>> lookup;
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE_DELAY);
+    private Task<ObservableList<T>> lookupTask;
+
+    public AutoCompletePicker(ComboBox<T> comboBox, Function<T, String> display,
+            Function<String, ObservableList<T>> lookup) {
+        this.comboBox = comboBox;
+        this.display = display;
+        this.lookup = lookup;
+
+        comboBox.setEditable(true);
+        comboBox.setConverter(new StringConverter<T>() {
+            @Override
+            public String toString(T item) {
+                return item == null ? "" : display.apply(item);
+            }
+
+            @Override
+            public T fromString(String text) {
+                return findByText(text);
+            }
+        });
+
+        debounce.setOnFinished(event -> runLookup(comboBox.getEditor().getText()));
+        comboBox.getEditor().textProperty().addListener((obs, oldText, newText) -> {
+            // Text written by the combo box for the chosen item is not a new query
+            T value = comboBox.getValue();
+            if (value != null && display.apply(value).equals(newText)) {
+                debounce.stop();
+                return;
+            }
+            debounce.playFromStart();
+        });
+    }
+
+    // Shows an item chosen elsewhere (e.g. when editing) without running a lookup for it
+    public void select(T item) {
+        debounce.stop();
+        cancelLookup();
+        if (item != null && !comboBox.getItems().contains(item)) {
+            comboBox.getItems().setAll(Collections.singletonList(item));
+        }
+        comboBox.setValue(item);
+    }
+
+    public void clear() {
+        debounce.stop();
+        cancelLookup();
+        comboBox.setValue(null);
+        comboBox.getEditor().clear();
+        comboBox.getItems().clear();
+    }
+
+    private void runLookup(String text) {
+        cancelLookup();
+        String term = text == null ? "" : text.trim();
+        if (term.isEmpty()) {
+            comboBox.getItems().clear();
+            comboBox.hide();
+            return;
+        }
+
+        lookupTask = BackgroundExecutor.getInstance().submit(
+                () -> lookup.apply(term),
+                items -> {
+                    comboBox.getItems().setAll(items);
+                    if (items.isEmpty()) {
+                        comboBox.hide();
+                    } else if (comboBox.getEditor().isFocused()) {
+                        comboBox.show();
+                    }
+                },
+                error -> System.err.println("Lookup failed: " + error.getMessage()));
+    }
+
+    private void cancelLookup() {
+        if (lookupTask != null) {
+            lookupTask.cancel();
+            lookupTask = null;
+        }
+    }
+
+    // Maps the committed editor text back to an item; text that matches nothing selects nothing
+    private T findByText(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return null;
+        }
+        T value = comboBox.getValue();
+        if (value != null && display.apply(value).equals(text)) {
+            return value;
+        }
+        for (T item : comboBox.getItems()) {
+            if (display.apply(item).equalsIgnoreCase(text.trim())) {
+                return item;
+            }
+        }
+        return null;
+    }
+}
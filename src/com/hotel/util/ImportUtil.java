@@ -0,0 +1,45 @@
+package com.hotel.util;
+
+import com.hotel.service.ImportResult;
+import javafx.scene.Node;
+import javafx.stage.FileChooser;
+
+import java.io.File;
+import java.util.List;
+
+public class ImportUtil {
+    // Errors listed in the result dialog; the full count is always shown
+    private static final int MAX_ERRORS_SHOWN = 15;
+
+    // The chosen CSV file, or null if the user cancelled
+    public static File chooseCsvFile(Node owner, String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        return chooser.showOpenDialog(owner.getScene().getWindow());
+    }
+
+    public static void showResult(String what, ImportResult result) {
+        String header = result.getImported() + " " + what + " imported";
+        if (!result.hasProblems()) {
+            AlertUtil.showSuccess("Import Complete", header, "All rows were imported successfully.");
+            return;
+        }
+
+        StringBuilder content = new StringBuilder();
+        if (result.getFileError() != null) {
+            content.append(result.getFileError()).append("\n\n");
+        }
+        if (result.getRejected() > 0) {
+            content.append(result.getRejected()).append(" row(s) were skipped:\n");
+            List<String> errors = result.getErrors();
+            for (int i = 0; i < Math.min(errors.size(), MAX_ERRORS_SHOWN); i++) {
+                content.append(errors.get(i)).append('\n');
+            }
+            if (result.getRejected() > MAX_ERRORS_SHOWN) {
+                content.append("... and ").append(result.getRejected() - MAX_ERRORS_SHOWN).append(" more");
+            }
+        }
+        AlertUtil.showWarning("Import Finished With Errors", header, content.toString().trim());
+    }
+}
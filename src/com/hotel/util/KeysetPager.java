@@ -0,0 +1,118 @@
+package com.hotel.util;
+
+import com.hotel.service.BackgroundExecutor;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Pages through a sorted query by seeking past the last key of the current page
+// (WHERE key < ? ... LIMIT n) instead of OFFSET, so every page costs the same no matter how deep.
+// Only the current page is held in memory; earlier pages are remembered by their starting key.
+public class KeysetPager<T, K> {
+
+    public interface PageQuery<T, K> {
+        // afterKey is null for the first page
+        List<T> fetch(K afterKey, int limit) throws Exception;
+    }
+
+    private final int pageSize;
+    private final Function<T, K> keyOf;
+    private final PageQuery<T, K> query;
+
+    // Stack of the keys each earlier page started after; null marks the first page
+    private final List<K> previousPageStarts = new ArrayList<>();
+    private K currentPageStart;
+    private K currentPageEnd;
+    private boolean hasNext;
+    private Task<?> loadTask;
+
+    private Consumer<ObservableList<T>> onPageLoaded;
+    private Consumer<Throwable> onLoadFailed;
+
+    public KeysetPager(int pageSize, Function<T, K> keyOf, PageQuery<T, K> query) {
+        this.pageSize = pageSize;
+        this.keyOf = keyOf;
+        this.query = query;
+    }
+
+    public void setOnPageLoaded(Consumer<ObservableList<T>> onPageLoaded) {
+        this.onPageLoaded = onPageLoaded;
+    }
+
+    public void setOnLoadFailed(Consumer<Throwable> onLoadFailed) {
+        this.onLoadFailed = onLoadFailed;
+    }
+
+    public void firstPage() {
+        load(null, new ArrayList<>());
+    }
+
+    public void nextPage() {
+        if (!hasNext) {
+            return;
+        }
+        List<K> pageStarts = new ArrayList<>(previousPageStarts);
+        pageStarts.add(currentPageStart);
+        load(currentPageEnd, pageStarts);
+    }
+
+    public void previousPage() {
+        if (previousPageStarts.isEmpty()) {
+            return;
+        }
+        List<K> pageStarts = new ArrayList<>(previousPageStarts);
+        K start = pageStarts.remove(pageStarts.size() - 1);
+        load(start, pageStarts);
+    }
+
+    public void reload() {
+        load(currentPageStart, new ArrayList<>(previousPageStarts));
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    public boolean hasPrevious() {
+        return !previousPageStarts.isEmpty();
+    }
+
+    public int getPageNumber() {
+        return previousPageStarts.size() + 1;
+    }
+
+    // Position only changes once the page has arrived, so a failed load leaves the pager where it was
+    private void load(K afterKey, List<K> pageStarts) {
+        if (loadTask != null) {
+            loadTask.cancel();
+        }
+
+        // One extra row tells us whether another page exists without a COUNT(*)
+        loadTask = BackgroundExecutor.getInstance().submit(
+                () -> query.fetch(afterKey, pageSize + 1),
+                rows -> {
+                    hasNext = rows.size() > pageSize;
+                    ObservableList<T> page = FXCollections.observableArrayList(
+                            hasNext ? rows.subList(0, pageSize) : rows);
+
+                    previousPageStarts.clear();
+                    previousPageStarts.addAll(pageStarts);
+                    currentPageStart = afterKey;
+                    currentPageEnd = page.isEmpty() ? afterKey : keyOf.apply(page.get(page.size() - 1));
+
+                    if (onPageLoaded != null) {
+                        onPageLoaded.accept(page);
+                    }
+                },
+                error -> {
+                    if (onLoadFailed != null) {
+                        onLoadFailed.accept(error);
+                    }
+                });
+    }
+}
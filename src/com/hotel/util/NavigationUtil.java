@@ -1,25 +1,70 @@
 package com.hotel.util;
 
+import com.hotel.service.BackgroundExecutor;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class NavigationUtil {
+    private static final String LOGIN_VIEW = "/com/hotel/view/login.fxml";
+
+    // Parsed views are kept for re-entry; the bound stops rarely used screens from pinning memory
+    private static final int MAX_CACHED_VIEWS = 6;
+
+    // Warmed up after login, in the order users usually visit them
+    private static final String[] PRELOADED_VIEWS = {
+            "/com/hotel/view/reservations.fxml",
+            "/com/hotel/view/payments.fxml",
+            "/com/hotel/view/guests.fxml",
+            "/com/hotel/view/rooms.fxml",
+            "/com/hotel/view/services.fxml"
+    };
+
     private static Stage primaryStage;
 
+    // Access-ordered, so the least recently shown view is evicted first
+    private static final Map<String, CachedView> viewCache = new LinkedHashMap<String, CachedView>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedView> eldest) {
+            return size() > MAX_CACHED_VIEWS;
+        }
+    };
+
+    private static class CachedView {
+        private final Parent root;
+        private final Object controller;
+
+        private CachedView(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+
     public static void setPrimaryStage(Stage stage) {
         primaryStage = stage;
     }
 
     public static void loadView(String fxmlPath) {
         try {
-            System.out.println("Loading FXML: " + fxmlPath);
-            FXMLLoader loader = new FXMLLoader(NavigationUtil.class.getResource(fxmlPath));
-            Parent root = loader.load();
-            System.out.println("FXML loaded successfully");
+            // Results for the view being left would only update detached nodes
+            BackgroundExecutor.getInstance().cancelViewTasks();
+
+            CachedView view = viewCache.get(fxmlPath);
+            boolean reused = view != null;
+            if (!reused) {
+                view = parseView(fxmlPath);
+                // The login form is never kept, so its fields do not survive a logout
+                if (!LOGIN_VIEW.equals(fxmlPath)) {
+                    viewCache.put(fxmlPath, view);
+                }
+            }
+            Parent root = view.root;
 
             if (primaryStage.getScene() == null) {
                 // First time loading: create scene with default dimensions
@@ -32,6 +77,11 @@ public class NavigationUtil {
 
             primaryStage.show();
             System.out.println("View displayed successfully");
+
+            // A cached view's loads were cancelled when it was left, so it has to catch up
+            if (reused && view.controller instanceof RefreshableView) {
+                ((RefreshableView) view.controller).onViewShown();
+            }
         } catch (IOException e) {
             System.err.println("ERROR loading view: " + fxmlPath);
             e.printStackTrace();
@@ -44,8 +94,39 @@ public class NavigationUtil {
         }
     }
 
+    private static CachedView parseView(String fxmlPath) throws IOException {
+        System.out.println("Loading FXML: " + fxmlPath);
+        FXMLLoader loader = new FXMLLoader(NavigationUtil.class.getResource(fxmlPath));
+        Parent root = loader.load();
+        System.out.println("FXML loaded successfully");
+        return new CachedView(root, loader.getController());
+    }
+
+    // Parses the main views after login so the first visit to each is instant. Scene graphs must
+    // be built on the JavaFX thread, so each view is parsed in its own pulse to keep the UI responsive.
+    public static void preloadMainViews() {
+        for (String fxmlPath : PRELOADED_VIEWS) {
+            Platform.runLater(() -> {
+                if (viewCache.containsKey(fxmlPath)) {
+                    return;
+                }
+                try {
+                    viewCache.put(fxmlPath, parseView(fxmlPath));
+                } catch (IOException e) {
+                    System.err.println("Could not preload view " + fxmlPath + ": " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    public static void clearViewCache() {
+        viewCache.clear();
+    }
+
     public static void loadLogin() {
-        loadView("/com/hotel/view/login.fxml");
+        // A new session must not see views (and form contents) left over from the previous one
+        clearViewCache();
+        loadView(LOGIN_VIEW);
     }
 
     public static void loadDashboard() {
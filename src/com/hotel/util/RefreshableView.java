@@ -0,0 +1,7 @@
+package com.hotel.util;
+
+// Implemented by controllers whose view NavigationUtil keeps in its cache. Called each time a
+// cached view is shown again, so it can reload whatever may have changed while it was hidden.
+public interface RefreshableView {
+    void onViewShown();
+}
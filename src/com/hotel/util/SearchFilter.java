@@ -0,0 +1,130 @@
+package com.hotel.util;
+
+import javafx.animation.PauseTransition;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.scene.control.TableView;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Client-side filtering for a table: master list -> FilteredList -> SortedList. The master list is
+// never copied; each row's search text is lowercased once when the row arrives, typing is debounced,
+// and named criteria (status, type, ...) are combined with the text match in a single pass.
+public class SearchFilter<T> {
+    private static final Duration DEBOUNCE_DELAY = Duration.millis(200);
+
+    private final FilteredList<T> filtered;
+    private final SortedList<T> sorted;
+    private final Function<T, String> searchText;
+    private final Map<T, String> searchKeys = new IdentityHashMap<>();
+    private final Map<String, Predicate<T>> criteria = new LinkedHashMap<>();
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE_DELAY);
+    private String pendingTerm = "";
+    private String term = "";
+
+    public SearchFilter(ObservableList<T> source, Function<T, String> searchText) {
+        this.searchText = searchText;
+        this.filtered = new FilteredList<>(source);
+        this.sorted = new SortedList<>(filtered);
+
+        source.addListener((ListChangeListener<T>) change -> {
+            while (change.next()) {
+                for (T row : change.getRemoved()) {
+                    searchKeys.remove(row);
+                }
+                for (T row : change.getAddedSubList()) {
+                    searchKeys.put(row, buildKey(row));
+                }
+            }
+        });
+        for (T row : source) {
+            searchKeys.put(row, buildKey(row));
+        }
+        debounce.setOnFinished(event -> applySearchText(pendingTerm));
+    }
+
+    // Shows the filtered rows in the table and keeps column sorting working on top of the filter
+    public void bind(TableView<T> table) {
+        sorted.comparatorProperty().bind(table.comparatorProperty());
+        table.setItems(sorted);
+    }
+
+    // For key strokes: the filter runs once typing pauses
+    public void setSearchText(String text) {
+        pendingTerm = text;
+        debounce.playFromStart();
+    }
+
+    public void applySearchText(String text) {
+        debounce.stop();
+        String normalized = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        if (!normalized.equals(term)) {
+            term = normalized;
+            refilter();
+        }
+    }
+
+    // A null predicate removes the criterion
+    public void setCriterion(String name, Predicate<T> predicate) {
+        if (predicate == null) {
+            if (criteria.remove(name) == null) {
+                return;
+            }
+        } else {
+            criteria.put(name, predicate);
+        }
+        refilter();
+    }
+
+    public void clear() {
+        debounce.stop();
+        pendingTerm = "";
+        term = "";
+        criteria.clear();
+        refilter();
+    }
+
+    // Call after rows were edited in place, since their keys and criteria values may have changed
+    public void refresh() {
+        searchKeys.replaceAll((row, key) -> buildKey(row));
+        refilter();
+    }
+
+    public ObservableList<T> getFilteredItems() {
+        return sorted;
+    }
+
+    private void refilter() {
+        String currentTerm = term;
+        List<Predicate<T>> active = new ArrayList<>(criteria.values());
+        if (currentTerm.isEmpty() && active.isEmpty()) {
+            filtered.setPredicate(null);
+            return;
+        }
+
+        // Cheap criteria first, substring match last
+        filtered.setPredicate(row -> {
+            for (Predicate<T> criterion : active) {
+                if (!criterion.test(row)) {
+                    return false;
+                }
+            }
+            return currentTerm.isEmpty() || searchKeys.computeIfAbsent(row, this::buildKey).contains(currentTerm);
+        });
+    }
+
+    private String buildKey(T row) {
+        String text = searchText.apply(row);
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
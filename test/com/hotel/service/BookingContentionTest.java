@@ -0,0 +1,175 @@
+package com.hotel.service;
+
+import com.hotel.model.Guest;
+import com.hotel.model.Reservation;
+import com.hotel.model.ReservationStatus;
+import com.hotel.model.Room;
+import com.hotel.model.RoomStatus;
+import com.hotel.model.RoomType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Desks booking the same rooms for overlapping dates at once. Needs a MySQL server: the test schema
+// is created and migrated on first run, and the test is skipped when no server is reachable.
+// -Dhotel.test.db.url (plus -Dhotel.db.user / -Dhotel.db.password) selects another server.
+class BookingContentionTest {
+    private static final String TEST_DB_URL = "jdbc:mysql://127.0.0.1:3306/hotel_management_test"
+            + "?rewriteBatchedStatements=true&createDatabaseIfNotExist=true";
+    private static final String ROOM_PREFIX = "CT-";
+    private static final String GUEST_ID_NUMBER = "CONTENTION-TEST";
+
+    private static final int THREADS = 8;
+    private static final int BOOKINGS_PER_THREAD = 50;
+    private static final int ROOMS = 2;
+    // Every stay starts inside this window, so most attempts overlap an earlier booking
+    private static final int WINDOW_DAYS = 30;
+    private static final int MAX_NIGHTS = 4;
+
+    private static DatabaseManager dbManager;
+
+    @BeforeAll
+    static void setUpDatabase() throws SQLException {
+        System.setProperty("hotel.db.url", System.getProperty("hotel.test.db.url", TEST_DB_URL));
+        dbManager = DatabaseManager.getInstance();
+        assumeTrue(dbManager.testConnection(), "No MySQL server for the contention test");
+        assertTrue(new MigrationRunner().migrate());
+
+        try (Connection conn = dbManager.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM reservations WHERE room_number LIKE '" + ROOM_PREFIX + "%'");
+            stmt.executeUpdate("DELETE FROM rooms WHERE room_number LIKE '" + ROOM_PREFIX + "%'");
+            stmt.executeUpdate("DELETE FROM guests WHERE id_number = '" + GUEST_ID_NUMBER + "'");
+        }
+    }
+
+    @Test
+    void concurrentOverlappingBookingsNeverDoubleBook() throws Exception {
+        Guest guest = insertGuest();
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 1; i <= ROOMS; i++) {
+            rooms.add(insertRoom(ROOM_PREFIX + i));
+        }
+
+        ReservationWorkflowService workflowService = ReservationWorkflowService.getInstance();
+        LocalDate firstNight = LocalDate.now().plusYears(1);
+        AtomicInteger committed = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> desks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            desks.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    LocalDate checkIn = firstNight.plusDays(random.nextInt(WINDOW_DAYS));
+                    LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(MAX_NIGHTS));
+                    Room room = rooms.get(random.nextInt(ROOMS));
+                    Reservation reservation = new Reservation(0, guest, room, checkIn, checkOut,
+                            ReservationStatus.PENDING, 0.0, "contention test");
+
+                    WorkflowResult result = workflowService.book(reservation);
+                    switch (result.getStatus()) {
+                        case COMPLETED:
+                            committed.incrementAndGet();
+                            break;
+                        case CONFLICT:
+                            conflicts.incrementAndGet();
+                            break;
+                        default:
+                            failed.incrementAndGet();
+                            break;
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> desk : desks) {
+            desk.get(5, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        pool.shutdown();
+
+        int attempts = THREADS * BOOKINGS_PER_THREAD;
+        System.out.printf("Booking contention: %d desks, %d attempts in %.2fs (%.0f bookings/s): "
+                        + "%d committed, %d conflicts, %d failed%n",
+                THREADS, attempts, seconds, attempts / seconds, committed.get(), conflicts.get(), failed.get());
+        System.out.println(workflowService.getBookingStats());
+
+        assertEquals(0, failed.get(), "bookings failed with a database error");
+        assertEquals(attempts, committed.get() + conflicts.get());
+        assertTrue(committed.get() > 0);
+        assertTrue(conflicts.get() > 0, "the dates were meant to collide");
+        assertEquals(0, countOverlappingPairs(), "a room was double booked");
+        assertEquals(committed.get(), countStoredBookings());
+    }
+
+    // Pairs of stored reservations for the same room whose stays share at least one night
+    private static int countOverlappingPairs() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM reservations a JOIN reservations b " +
+                "ON a.room_number = b.room_number AND a.id < b.id " +
+                "AND a.check_in_date < b.check_out_date AND b.check_in_date < a.check_out_date " +
+                "WHERE a.room_number LIKE '" + ROOM_PREFIX + "%'";
+        try (Connection conn = dbManager.getConnection(); Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static int countStoredBookings() throws SQLException {
+        try (Connection conn = dbManager.getConnection(); Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(
+                        "SELECT COUNT(*) FROM reservations WHERE room_number LIKE '" + ROOM_PREFIX + "%'")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static Guest insertGuest() throws SQLException {
+        String sql = "INSERT INTO guests (first_name, last_name, email, phone, id_number, address) " +
+                "VALUES ('Contention', 'Test', '', '', ?, '')";
+        try (Connection conn = dbManager.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, GUEST_ID_NUMBER);
+            pstmt.executeUpdate();
+            ResultSet keys = pstmt.getGeneratedKeys();
+            keys.next();
+            return new Guest(keys.getInt(1), "Contention", "Test", "", "", GUEST_ID_NUMBER, "");
+        }
+    }
+
+    private static Room insertRoom(String roomNumber) throws SQLException {
+        String sql = "INSERT INTO rooms (room_number, type, status, price_per_night, description, max_occupancy) " +
+                "VALUES (?, 'SINGLE', 'AVAILABLE', 100, 'contention test', 1)";
+        try (Connection conn = dbManager.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, roomNumber);
+            pstmt.executeUpdate();
+        }
+        return new Room(roomNumber, RoomType.SINGLE, RoomStatus.AVAILABLE, 100, "contention test", 1);
+    }
+}
@@ -0,0 +1,123 @@
+package com.hotel.service;
+
+import com.hotel.model.Guest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GuestSearchIndexTest {
+    private static final int NO_LIMIT = 100;
+
+    private static Guest guest(int id, String firstName, String lastName, String email) {
+        return new Guest(id, firstName, lastName, email, "555-01" + id, "ID" + id, "");
+    }
+
+    private static GuestSearchIndex indexOf(Guest... guests) {
+        GuestSearchIndex index = new GuestSearchIndex(null);
+        index.load(Arrays.asList(guests));
+        return index;
+    }
+
+    @Test
+    void shortTermsOnlyMatchTheStartOfAFieldOrWord() {
+        GuestSearchIndex index = indexOf(
+                guest(1, "John", "Smith", "john@example.com"),
+                guest(2, "Mary", "Jones", "mary@example.com"),
+                guest(3, "Bjorn", "Major", "bjorn@example.com"),
+                guest(4, "Ann", "Lee", "ann.joyce@example.com"));
+
+        assertEquals(Arrays.asList(1, 2, 4), sorted(index.search("jo", NO_LIMIT)));
+        assertEquals(Arrays.asList(1), index.search("J SM", NO_LIMIT));
+        assertTrue(index.search("or", NO_LIMIT).isEmpty());
+    }
+
+    @Test
+    void longerTermsAlsoMatchInsideWords() {
+        GuestSearchIndex index = indexOf(
+                guest(1, "Bjorn", "Major", "bjorn@example.com"),
+                guest(2, "John", "Smith", "john@example.com"));
+
+        assertEquals(Arrays.asList(1), index.search("jor", NO_LIMIT));
+        assertEquals(Arrays.asList(2), index.search("mit", NO_LIMIT));
+    }
+
+    @Test
+    void everyWordOfTheTermMustMatch() {
+        GuestSearchIndex index = indexOf(
+                guest(1, "John", "Smith", "js@example.com"),
+                guest(2, "John", "Doe", "jd@example.com"),
+                guest(3, "Jane", "Smith", "jane@example.com"));
+
+        assertEquals(Arrays.asList(1), index.search("john smith", NO_LIMIT));
+        assertEquals(Arrays.asList(1), index.search("  Smith   JOHN ", NO_LIMIT));
+        assertTrue(index.search("john lee", NO_LIMIT).isEmpty());
+    }
+
+    @Test
+    void wordsDoNotMatchAcrossFields() {
+        GuestSearchIndex index = indexOf(guest(1, "Anna", "Belle", "ab@example.com"));
+
+        assertTrue(index.search("nabe", NO_LIMIT).isEmpty());
+    }
+
+    @Test
+    void exactFieldsRankAboveFieldPrefixesWordPrefixesAndSubstrings() {
+        GuestSearchIndex index = indexOf(
+                guest(1, "Joanna", "Lee", "jl@example.com"),
+                guest(2, "Mary", "Lee", "mary.ann@example.com"),
+                guest(3, "Anna", "Lee", "al@example.com"),
+                guest(4, "Ann", "Lee", "x@example.com"));
+
+        assertEquals(Arrays.asList(4, 3, 2, 1), index.search("ann", NO_LIMIT));
+    }
+
+    @Test
+    void newerGuestsComeFirstWithinARank() {
+        GuestSearchIndex index = indexOf(
+                guest(7, "Ann", "Lee", "a7@example.com"),
+                guest(2, "Ann", "Kim", "a2@example.com"),
+                guest(5, "Ann", "Roe", "a5@example.com"));
+
+        assertEquals(Arrays.asList(7, 5, 2), index.search("ann", NO_LIMIT));
+    }
+
+    @Test
+    void limitKeepsTheBestMatches() {
+        List<Guest> guests = new ArrayList<>();
+        for (int id = 1; id <= 10; id++) {
+            guests.add(guest(id, "Guest" + id, "Smith", "g" + id + "@example.com"));
+        }
+        guests.add(guest(11, "Joe", "Blacksmith", "joe@example.com"));
+        guests.add(guest(12, "Smith", "Jones", "sj@example.com"));
+        GuestSearchIndex index = new GuestSearchIndex(null);
+        index.load(guests);
+
+        assertEquals(Arrays.asList(12, 10, 9), index.search("smith", 3));
+        assertEquals(12, index.search("smith", NO_LIMIT).size());
+        assertEquals(Arrays.asList(11), index.search("smith", NO_LIMIT).subList(11, 12));
+    }
+
+    @Test
+    void savedAndDeletedGuestsAreReflected() {
+        GuestSearchIndex index = indexOf(guest(1, "John", "Smith", "js@example.com"));
+
+        index.onGuestSaved(guest(1, "Johnny", "Walker", "jw@example.com"));
+        index.onGuestSaved(guest(2, "Sam", "Smith", "ss@example.com"));
+        assertEquals(Arrays.asList(2), index.search("smith", NO_LIMIT));
+        assertEquals(Arrays.asList(1), index.search("walker", NO_LIMIT));
+
+        index.onGuestDeleted(2);
+        assertTrue(index.search("smith", NO_LIMIT).isEmpty());
+    }
+
+    private static List<Integer> sorted(List<Integer> ids) {
+        List<Integer> copy = new ArrayList<>(ids);
+        copy.sort(null);
+        return copy;
+    }
+}
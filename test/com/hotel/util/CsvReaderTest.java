@@ -0,0 +1,92 @@
+package com.hotel.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvReaderTest {
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void splitsPlainFields() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("a", "b", "c"), Arrays.asList("1", "", "3")),
+                readAll("a,b,c\n1,,3\n"));
+    }
+
+    @Test
+    void keepsEmptyTrailingFields() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("a", "", "")), readAll("a,,"));
+    }
+
+    @Test
+    void quotedFieldsMayContainCommas() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("Smith, John", "12 Main St, Apt 4", "x")),
+                readAll("\"Smith, John\",\"12 Main St, Apt 4\",x\n"));
+    }
+
+    @Test
+    void quotedFieldsMayContainLineBreaks() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("id,address\n1,\"line one\r\nline two\n\nline four\"\n2,x\n"));
+
+        assertEquals(Arrays.asList("id", "address"), reader.readRecord());
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(Arrays.asList("1", "line one\nline two\n\nline four"), reader.readRecord());
+        assertEquals(2, reader.getRecordLine());
+        assertEquals(Arrays.asList("2", "x"), reader.readRecord());
+        assertEquals(6, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void doubledQuotesInsideQuotesAreLiteralQuotes() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("say \"hi\"", "\"", "")),
+                readAll("\"say \"\"hi\"\"\",\"\"\"\",\"\""));
+    }
+
+    @Test
+    void quotesInsideAnUnquotedFieldAreKept() throws IOException {
+        assertEquals(Arrays.asList(Arrays.asList("5\" tall", "b")), readAll("5\" tall,b"));
+    }
+
+    @Test
+    void stripsALeadingByteOrderMark() throws IOException {
+        List<List<String>> records = readAll("\uFEFFfirst_name,last_name\n\uFEFFAnn,Lee\n");
+
+        assertEquals(Arrays.asList("first_name", "last_name"), records.get(0));
+        // Only the very first character of the input can be a BOM
+        assertEquals("\uFEFFAnn", records.get(1).get(0));
+    }
+
+    @Test
+    void unterminatedQuoteReportsTheRecordsFirstLine() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b\n1,\"never closed\n2,x\n"));
+        reader.readRecord();
+
+        IOException e = assertThrows(IOException.class, reader::readRecord);
+        assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertTrue(readAll("").isEmpty());
+    }
+}